@@ -0,0 +1,72 @@
+package cn.wangchen.security.audit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+
+/**
+ * 认证、授权事件的审计日志，写入 security.audit.dir 下的分段文件
+ *  网关、uaa、订单服务共用，在启动类上 @Import 引入
+ *
+ * 文件名前缀为服务名加实例id，同一目录下的多个实例各自轮转、各自删除旧文件，
+ * 实例id 由 security.audit.instance-id 指定，一般配置为端口，重启后仍能清理上次的文件；
+ * 未配置时使用进程号
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 10:20
+ */
+@Configuration
+public class AuditConfig {
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${security.audit.instance-id:}")
+    private String instanceId;
+
+    @Value("${security.audit.dir:audit}")
+    private String dir;
+
+    @Value("${security.audit.ring-size:16384}")
+    private int ringSize;
+
+    @Value("${security.audit.segment-records:524288}")
+    private int segmentRecords;
+
+    @Value("${security.audit.max-segments:16}")
+    private int maxSegments;
+
+    /**
+     * 环形缓冲区满时丢弃的记录数通过 audit.dropped 查看
+     * @return
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AuditLog auditLog(MeterRegistry registry) throws IOException {
+        AuditLog auditLog = new AuditLog(ringSize, new AuditSegmentWriter(Paths.get(dir), segmentPrefix(), segmentRecords, maxSegments));
+        Gauge.builder("audit.dropped", auditLog, AuditLog::getDropped)
+            .description("缓冲区满时丢弃的审计记录")
+            .register(registry);
+        return auditLog;
+    }
+
+    private String segmentPrefix() {
+        String instance = instanceId.isEmpty() ? processId() : instanceId;
+        return applicationName + "-" + instance.replaceAll("[^A-Za-z0-9_.]", "_");
+    }
+
+    /**
+     * RuntimeMXBean 的名称为 pid@hostname
+     */
+    private static String processId() {
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        int at = name.indexOf('@');
+        return at > 0 ? name.substring(0, at) : name;
+    }
+}
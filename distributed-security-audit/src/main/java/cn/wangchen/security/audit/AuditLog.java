@@ -0,0 +1,197 @@
+package cn.wangchen.security.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 认证、授权事件的异步审计日志
+ *  请求线程把定长记录写入预先分配的环形缓冲区，不创建对象、不做IO
+ *  单独的写线程按顺序批量取出，写入内存映射的分段文件，见 {@link AuditSegmentWriter}
+ *  缓冲区满时丢弃记录并计数，不阻塞请求
+ *
+ * 离线分析使用 {@link AuditReader} 把分段文件解码为JSON
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 18:50
+ */
+public class AuditLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    /**
+     * 写线程一批最多写入的记录数
+     */
+    private static final int MAX_BATCH = 1024;
+
+    /**
+     * 没有记录时写线程的等待时间
+     */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 刷盘间隔
+     */
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ByteBuffer ring;
+
+    private final int capacity;
+
+    private final int mask;
+
+    /**
+     * 下一个要分配的序号
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * 每个槽位已写完的序号，写线程据此判断记录是否可读
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * 写线程已取走的序号，只由写线程修改
+     */
+    private volatile long tail;
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final AuditSegmentWriter segmentWriter;
+
+    private final Thread writerThread;
+
+    private volatile boolean running;
+
+    /**
+     * @param capacity 环形缓冲区的记录数，向上取2的幂
+     * @param segmentWriter 分段文件
+     */
+    public AuditLog(int capacity, AuditSegmentWriter segmentWriter) {
+        this.capacity = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.ring = ByteBuffer.allocateDirect(this.capacity * AuditRecord.SIZE);
+        this.published = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            published.set(i, -1);
+        }
+        this.segmentWriter = segmentWriter;
+        this.writerThread = new Thread(this::drain, "audit-writer");
+        this.writerThread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        writerThread.start();
+    }
+
+    /**
+     * 记录一个事件，在请求线程上调用
+     * @param type 事件类型，见 {@link AuditRecord}
+     * @param allowed 是否通过
+     * @param detail 附加数值
+     * @param correlationId 请求id
+     * @param principal 用户名
+     * @param client 客户端id
+     * @param resource 资源
+     * @return 缓冲区满被丢弃时返回false
+     */
+    public boolean record(byte type, boolean allowed, int detail, CharSequence correlationId,
+                          CharSequence principal, CharSequence client, CharSequence resource) {
+        long sequence;
+        do {
+            sequence = head.get();
+            if (sequence - tail >= capacity) {
+                dropped.increment();
+                return false;
+            }
+        } while (!head.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        int offset = slot * AuditRecord.SIZE;
+        boolean written = false;
+        try {
+            AuditRecord.write(ring, offset, System.currentTimeMillis(), type, allowed, detail,
+                correlationId, principal, client, resource);
+            written = true;
+        } finally {
+            //已分配的序号必须发布，否则写线程一直停在这个槽位上，写坏的记录标记作废
+            if (!written) {
+                AuditRecord.skip(ring, offset);
+                dropped.increment();
+            }
+            published.lazySet(slot, sequence);
+        }
+        return true;
+    }
+
+    /**
+     * 写完缓冲区中剩余的记录后停止
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return tail;
+    }
+
+    private void drain() {
+        long lastForce = System.nanoTime();
+        //连续失败时只记录第一次，写成功后复位
+        boolean failing = false;
+        while (true) {
+            long next = tail;
+            int batch = 0;
+            while (batch < MAX_BATCH && published.get((int) (next & mask)) == next) {
+                next++;
+                batch++;
+            }
+            try {
+                if (batch == 0) {
+                    if (!running) {
+                        break;
+                    }
+                    if (System.nanoTime() - lastForce > FORCE_INTERVAL_NANOS) {
+                        segmentWriter.force();
+                        lastForce = System.nanoTime();
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                for (long sequence = tail; sequence < next; sequence++) {
+                    int offset = (int) (sequence & mask) * AuditRecord.SIZE;
+                    if (!AuditRecord.isSkipped(ring, offset)) {
+                        segmentWriter.append(ring, offset);
+                    }
+                }
+                segmentWriter.commit();
+                failing = false;
+            } catch (IOException | RuntimeException e) {
+                //磁盘异常、映射失败时丢弃本批记录，写线程只有一个，不能因此退出
+                dropped.add(next - tail);
+                if (!failing) {
+                    logger.error("审计日志写入失败，丢弃 {} 条记录", next - tail, e);
+                    failing = true;
+                }
+            }
+            //释放槽位
+            tail = next;
+        }
+        segmentWriter.close();
+    }
+}
@@ -0,0 +1,74 @@
+package cn.wangchen.security.audit;
+
+import com.alibaba.fastjson.JSON;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把审计分段文件解码为JSON，每行一条记录
+ *
+ *  java -cp distributed-security-audit.jar:fastjson.jar cn.wangchen.security.audit.AuditReader audit/ > audit.json
+ *
+ * 参数为目录或分段文件，目录按文件创建顺序读取全部分段
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 19:10
+ */
+public class AuditReader {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("用法: AuditReader <目录或分段文件>...");
+            System.exit(1);
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                files.addAll(AuditSegmentWriter.list(path, null));
+            } else {
+                files.add(path);
+            }
+        }
+        PrintStream out = System.out;
+        for (Path file : files) {
+            read(file, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * 只读取文件头中记录数之内的记录
+     * @return 读取的记录数
+     */
+    public static int read(Path file, PrintStream out) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.limit() < AuditSegmentWriter.HEADER_SIZE || segment.getInt(0) != AuditSegmentWriter.MAGIC) {
+            System.err.println("不是审计分段文件: " + file);
+            return 0;
+        }
+        int recordSize = segment.getShort(6);
+        if (recordSize != AuditRecord.SIZE) {
+            System.err.println("不支持的记录长度 " + recordSize + ": " + file);
+            return 0;
+        }
+        int count = segment.getInt(AuditSegmentWriter.COUNT_OFFSET);
+        for (int i = 0; i < count; i++) {
+            out.println(JSON.toJSONString(AuditRecord.read(segment, AuditSegmentWriter.HEADER_SIZE + i * recordSize)));
+        }
+        return count;
+    }
+}
@@ -0,0 +1,170 @@
+package cn.wangchen.security.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 审计记录的二进制格式，每条记录固定 128 字节
+ *
+ *  偏移  长度  内容
+ *  0     8     时间戳，毫秒
+ *  8     1     事件类型
+ *  9     1     结果，1 通过 0 拒绝
+ *  10    2     保留
+ *  12    4     附加数值：签发令牌为有效期秒数，其他为权限个数
+ *  16    24    请求id
+ *  40    32    用户名
+ *  72    24    客户端id
+ *  96    32    资源：授权类型、请求路径或方法
+ *
+ * 字符串字段首字节为长度，其后为UTF-8编码，超长截断
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 18:10
+ */
+public final class AuditRecord {
+
+    public static final int SIZE = 128;
+
+    /**
+     * 写入过程中出错的槽位，写线程跳过，不写入文件
+     */
+    static final byte SKIPPED = 0;
+
+    public static final byte TOKEN_ISSUE = 1;
+
+    public static final byte TOKEN_REFRESH = 2;
+
+    public static final byte GATEWAY_PASS = 3;
+
+    public static final byte ACCESS_DENIED = 4;
+
+    private static final int TIMESTAMP = 0;
+    private static final int TYPE = 8;
+    private static final int OUTCOME = 9;
+    private static final int DETAIL = 12;
+    private static final int CORRELATION_ID = 16;
+    private static final int CORRELATION_ID_SIZE = 24;
+    private static final int PRINCIPAL = 40;
+    private static final int PRINCIPAL_SIZE = 32;
+    private static final int CLIENT = 72;
+    private static final int CLIENT_SIZE = 24;
+    private static final int RESOURCE = 96;
+    private static final int RESOURCE_SIZE = 32;
+
+    private AuditRecord() {
+    }
+
+    /**
+     * 写入一条记录，只使用绝对位置，多个线程可以同时写不同的位置
+     */
+    static void write(ByteBuffer buffer, int offset, long timestamp, byte type, boolean allowed, int detail,
+                      CharSequence correlationId, CharSequence principal, CharSequence client, CharSequence resource) {
+        buffer.putLong(offset + TIMESTAMP, timestamp);
+        buffer.put(offset + TYPE, type);
+        buffer.put(offset + OUTCOME, (byte) (allowed ? 1 : 0));
+        buffer.putShort(offset + OUTCOME + 1, (short) 0);
+        buffer.putInt(offset + DETAIL, detail);
+        putString(buffer, offset + CORRELATION_ID, CORRELATION_ID_SIZE, correlationId);
+        putString(buffer, offset + PRINCIPAL, PRINCIPAL_SIZE, principal);
+        putString(buffer, offset + CLIENT, CLIENT_SIZE, client);
+        putString(buffer, offset + RESOURCE, RESOURCE_SIZE, resource);
+    }
+
+    /**
+     * 标记槽位作废
+     */
+    static void skip(ByteBuffer buffer, int offset) {
+        buffer.put(offset + TYPE, SKIPPED);
+    }
+
+    static boolean isSkipped(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + TYPE) == SKIPPED;
+    }
+
+    /**
+     * 解码一条记录，离线分析使用
+     */
+    public static Map<String, Object> read(ByteBuffer buffer, int offset) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("timestamp", buffer.getLong(offset + TIMESTAMP));
+        record.put("type", typeName(buffer.get(offset + TYPE)));
+        record.put("allowed", buffer.get(offset + OUTCOME) == 1);
+        record.put("detail", buffer.getInt(offset + DETAIL));
+        record.put("correlationId", getString(buffer, offset + CORRELATION_ID));
+        record.put("principal", getString(buffer, offset + PRINCIPAL));
+        record.put("client", getString(buffer, offset + CLIENT));
+        record.put("resource", getString(buffer, offset + RESOURCE));
+        return record;
+    }
+
+    public static String typeName(byte type) {
+        switch (type) {
+            case TOKEN_ISSUE:
+                return "token_issue";
+            case TOKEN_REFRESH:
+                return "token_refresh";
+            case GATEWAY_PASS:
+                return "gateway_pass";
+            case ACCESS_DENIED:
+                return "access_denied";
+            default:
+                return "unknown_" + type;
+        }
+    }
+
+    /**
+     * 逐个字符编码为UTF-8，不创建临时数组，多字节字符放不下时整体舍弃
+     */
+    private static void putString(ByteBuffer buffer, int offset, int size, CharSequence value) {
+        int pos = offset + 1;
+        int limit = offset + size;
+        int length = value == null ? 0 : value.length();
+        for (int i = 0; i < length; i++) {
+            int c = value.charAt(i);
+            if (Character.isHighSurrogate((char) c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, value.charAt(++i));
+            }
+            if (c < 0x80) {
+                if (pos + 1 > limit) {
+                    break;
+                }
+                buffer.put(pos++, (byte) c);
+            } else if (c < 0x800) {
+                if (pos + 2 > limit) {
+                    break;
+                }
+                buffer.put(pos++, (byte) (0xc0 | (c >> 6)));
+                buffer.put(pos++, (byte) (0x80 | (c & 0x3f)));
+            } else if (c < 0x10000) {
+                if (pos + 3 > limit) {
+                    break;
+                }
+                buffer.put(pos++, (byte) (0xe0 | (c >> 12)));
+                buffer.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put(pos++, (byte) (0x80 | (c & 0x3f)));
+            } else {
+                if (pos + 4 > limit) {
+                    break;
+                }
+                buffer.put(pos++, (byte) (0xf0 | (c >> 18)));
+                buffer.put(pos++, (byte) (0x80 | ((c >> 12) & 0x3f)));
+                buffer.put(pos++, (byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put(pos++, (byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        buffer.put(offset, (byte) (pos - offset - 1));
+    }
+
+    private static String getString(ByteBuffer buffer, int offset) {
+        int length = buffer.get(offset) & 0xff;
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + 1 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,207 @@
+package cn.wangchen.security.audit;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 把审计记录写入内存映射的分段文件，写满后换新文件，只保留最近的若干个
+ *  只由 {@link AuditLog} 的写线程调用，不是线程安全的
+ *
+ *  文件头与一条记录等长：
+ *  0   4  魔数 AUD1
+ *  4   2  版本
+ *  6   2  记录长度
+ *  8   4  可容纳的记录数
+ *  12  4  已写入的记录数，每批写完后更新
+ *  16  8  创建时间，毫秒
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 18:30
+ */
+public class AuditSegmentWriter {
+
+    public static final int MAGIC = 0x41554431;
+
+    public static final short VERSION = 1;
+
+    public static final int HEADER_SIZE = AuditRecord.SIZE;
+
+    public static final int COUNT_OFFSET = 12;
+
+    public static final String SUFFIX = ".audit";
+
+    /**
+     * 释放映射的方法，jdk9+ 为 Unsafe.invokeCleaner，jdk8 为 DirectByteBuffer.cleaner().clean()
+     *  都取不到时为null，映射随GC释放
+     */
+    private static final Object UNSAFE;
+
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Path dir;
+
+    private final String prefix;
+
+    private final int segmentRecords;
+
+    private final int maxSegments;
+
+    private MappedByteBuffer segment;
+
+    private int count;
+
+    private int sequence;
+
+    /**
+     * @param dir 目录
+     * @param prefix 文件名前缀，一般为服务名加实例id，同一目录下的实例不能相同
+     * @param segmentRecords 每个文件的记录数
+     * @param maxSegments 最多保留的文件数
+     */
+    public AuditSegmentWriter(Path dir, String prefix, int segmentRecords, int maxSegments) throws IOException {
+        this.dir = dir;
+        this.prefix = prefix;
+        this.segmentRecords = segmentRecords;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * 追加一条记录，按long复制
+     * @param source 环形缓冲区
+     * @param offset 记录在缓冲区中的位置
+     */
+    public void append(ByteBuffer source, int offset) throws IOException {
+        if (segment == null || count == segmentRecords) {
+            rotate();
+        }
+        int position = HEADER_SIZE + count * AuditRecord.SIZE;
+        for (int i = 0; i < AuditRecord.SIZE; i += 8) {
+            segment.putLong(position + i, source.getLong(offset + i));
+        }
+        count++;
+    }
+
+    /**
+     * 更新文件头中的记录数，读取方只读到这里
+     */
+    public void commit() {
+        if (segment != null) {
+            segment.putInt(COUNT_OFFSET, count);
+        }
+    }
+
+    /**
+     * 刷到磁盘
+     */
+    public void force() {
+        if (segment != null) {
+            commit();
+            segment.force();
+        }
+    }
+
+    public void close() {
+        force();
+        unmap(segment);
+        segment = null;
+    }
+
+    private void rotate() throws IOException {
+        force();
+        MappedByteBuffer retired = segment;
+        Path file = dir.resolve(String.format("%s-%d-%04d%s", prefix, System.currentTimeMillis(), sequence++ % 10000, SUFFIX));
+        long size = HEADER_SIZE + (long) segmentRecords * AuditRecord.SIZE;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //关闭channel后映射仍然有效
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        //每个文件映射几十MB，等GC释放会一直占着虚拟内存和文件句柄，换新文件后立即释放旧的
+        unmap(retired);
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, VERSION);
+        segment.putShort(6, (short) AuditRecord.SIZE);
+        segment.putInt(8, segmentRecords);
+        segment.putInt(COUNT_OFFSET, 0);
+        segment.putLong(16, System.currentTimeMillis());
+        count = 0;
+        deleteOldSegments();
+    }
+
+    /**
+     * 释放映射，之后不能再访问这个buffer，调用方要先去掉所有引用
+     *  失败时不抛出，映射随GC释放
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                return;
+            }
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //留给GC
+        }
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> files = list(dir, prefix);
+        for (int i = 0; i < files.size() - maxSegments; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    /**
+     * 按文件名排序即按创建时间排序
+     * @param dir 目录
+     * @param prefix 文件名前缀，为null时列出全部
+     */
+    public static List<Path> list(Path dir, String prefix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (prefix == null || file.getFileName().toString().startsWith(prefix + "-")) {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,134 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.audit.AuditSegmentWriter;
+import cn.wangchen.security.gateway.filter.AuthFilter;
+import cn.wangchen.security.gateway.metrics.AuthMetrics;
+import cn.wangchen.security.gateway.token.IdentityTokenCache;
+import cn.wangchen.security.gateway.util.EncryptUtil;
+import cn.wangchen.security.gateway.util.IdentityTokenCodec;
+import com.alibaba.fastjson.JSON;
+import com.netflix.zuul.context.RequestContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关 AuthFilter 构造转发给微服务的身份header
+ *  cachedEnvelope：同一个令牌命中缓存
+ *  uncachedEnvelope：每次编码并签名
+ *  legacyJsonToken：原来的 base64 + json 方式，作为对照
+ * 前两项包含写审计记录，审计文件写在临时目录
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 10:05
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthFilterBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int authorityCount;
+
+    private AuthFilter authFilter;
+
+    private AuditLog auditLog;
+
+    private OAuth2Authentication cachedAuthentication;
+
+    private OAuth2Authentication uncachedAuthentication;
+
+    @Setup
+    public void setup() throws IOException {
+        auditLog = new AuditLog(65536, new AuditSegmentWriter(Files.createTempDirectory("audit"), "gateway", 1 << 20, 2));
+        auditLog.start();
+
+        authFilter = new AuthFilter();
+        ReflectionTestUtils.setField(authFilter, "identityTokenCodec", new IdentityTokenCodec(Fixtures.IDENTITY_KEY));
+        ReflectionTestUtils.setField(authFilter, "identityTokenCache", new IdentityTokenCache(100000));
+        ReflectionTestUtils.setField(authFilter, "authMetrics", new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(authFilter, "auditLog", auditLog);
+        ReflectionTestUtils.setField(authFilter, "identityTtl", 300L);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/order/r1");
+        //信封的过期时间取自令牌的 exp，使用真实的jwt
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setSigningKey(Fixtures.SIGNING_KEY);
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken("token-" + authorityCount);
+        token.setExpiration(new Date(System.currentTimeMillis() + 7200 * 1000L));
+        request.setAttribute(OAuth2AuthenticationDetails.ACCESS_TOKEN_VALUE,
+            converter.enhance(token, Fixtures.authentication(authorityCount)).getValue());
+        request.setAttribute(OAuth2AuthenticationDetails.ACCESS_TOKEN_TYPE, "Bearer");
+
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ctx.setRequest(request);
+        ctx.setResponse(new MockHttpServletResponse());
+
+        cachedAuthentication = Fixtures.authentication(authorityCount);
+        cachedAuthentication.setDetails(new OAuth2AuthenticationDetails(request));
+        //没有令牌信息时无法按令牌缓存
+        uncachedAuthentication = Fixtures.authentication(authorityCount);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        auditLog.close();
+    }
+
+    @Benchmark
+    public Object cachedEnvelope() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(cachedAuthentication);
+        authFilter.run();
+        return RequestContext.getCurrentContext().getZuulRequestHeaders().get(IdentityTokenCodec.HEADER_NAME);
+    }
+
+    @Benchmark
+    public Object uncachedEnvelope() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(uncachedAuthentication);
+        authFilter.run();
+        return RequestContext.getCurrentContext().getZuulRequestHeaders().get(IdentityTokenCodec.HEADER_NAME);
+    }
+
+    @Benchmark
+    public String legacyJsonToken() {
+        OAuth2Authentication authentication = uncachedAuthentication;
+        List<String> authorities = new ArrayList<>();
+        authentication.getUserAuthentication().getAuthorities().forEach(grantedAuthority -> authorities.add(grantedAuthority.getAuthority()));
+        Map<String, Object> jsonToken = new HashMap<>(authentication.getOAuth2Request().getRequestParameters());
+        jsonToken.put("username", authentication.getName());
+        jsonToken.put("authorities", authorities);
+        return EncryptUtil.encodeUTF8StringBase64(JSON.toJSONString(jsonToken));
+    }
+}
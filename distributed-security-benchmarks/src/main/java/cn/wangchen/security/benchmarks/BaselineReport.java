@@ -0,0 +1,142 @@
+package cn.wangchen.security.benchmarks;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 对比本次结果和基线结果（均为JMH的JSON输出），标记性能回退
+ *  耗时：超过阈值且差值大于两次误差之和，视为回退
+ *  内存分配：每次操作分配的字节数（gc.alloc.rate.norm）超过阈值，视为回退
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 11:20
+ */
+public class BaselineReport {
+
+    private static final String ALLOC_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * 忽略的分配差值，单位字节
+     */
+    private static final double ALLOC_NOISE = 16;
+
+    private final double threshold;
+
+    private final List<String> lines = new ArrayList<>();
+
+    private int regressions;
+
+    public BaselineReport(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * 对比两份结果
+     * @param baseline 基线结果
+     * @param current 本次结果
+     * @return 回退的个数
+     */
+    public int compare(Path baseline, Path current) throws IOException {
+        Map<String, JSONObject> baselineResults = load(baseline);
+        Map<String, JSONObject> currentResults = load(current);
+
+        lines.add(String.format("%-90s %14s %14s %9s %12s %12s  %s", "benchmark", "baseline", "current", "change", "alloc(B/op)", "base alloc", ""));
+        for (Map.Entry<String, JSONObject> entry : currentResults.entrySet()) {
+            JSONObject cur = entry.getValue();
+            JSONObject base = baselineResults.get(entry.getKey());
+            JSONObject curMetric = cur.getJSONObject("primaryMetric");
+            double curScore = curMetric.getDoubleValue("score");
+            double curAlloc = alloc(cur);
+            if (base == null) {
+                lines.add(String.format("%-90s %14s %14.3f %9s %12.1f %12s  %s", entry.getKey(), "-", curScore, "-", curAlloc, "-", "NEW"));
+                continue;
+            }
+            JSONObject baseMetric = base.getJSONObject("primaryMetric");
+            double baseScore = baseMetric.getDoubleValue("score");
+            double baseAlloc = alloc(base);
+
+            //吞吐量越大越好，其他模式越小越好
+            boolean higherIsBetter = "thrpt".equals(cur.getString("mode"));
+            double change = baseScore == 0 ? 0 : (curScore - baseScore) / baseScore;
+            double worse = higherIsBetter ? -change : change;
+            double noise = curMetric.getDoubleValue("scoreError") + baseMetric.getDoubleValue("scoreError");
+            boolean timeRegression = worse > threshold && Math.abs(curScore - baseScore) > noise;
+            boolean allocRegression = !Double.isNaN(curAlloc) && !Double.isNaN(baseAlloc)
+                && curAlloc - baseAlloc > ALLOC_NOISE && curAlloc > baseAlloc * (1 + threshold);
+
+            String flag = "";
+            if (timeRegression || allocRegression) {
+                regressions++;
+                flag = "REGRESSION" + (timeRegression ? " time" : "") + (allocRegression ? " alloc" : "");
+            } else if (-worse > threshold && Math.abs(curScore - baseScore) > noise) {
+                flag = "IMPROVED";
+            }
+            lines.add(String.format("%-90s %14.3f %14.3f %+8.1f%% %12.1f %12.1f  %s",
+                entry.getKey(), baseScore, curScore, change * 100, curAlloc, baseAlloc, flag));
+        }
+        for (String key : baselineResults.keySet()) {
+            if (!currentResults.containsKey(key)) {
+                lines.add(String.format("%-90s %s", key, "MISSING"));
+            }
+        }
+        lines.add(String.format("阈值 %.0f%%，回退 %d 项", threshold * 100, regressions));
+        return regressions;
+    }
+
+    public List<String> getLines() {
+        return lines;
+    }
+
+    public int getRegressions() {
+        return regressions;
+    }
+
+    /**
+     * 按 方法名 + 参数 + 模式 建立索引
+     */
+    private static Map<String, JSONObject> load(Path path) throws IOException {
+        JSONArray results = JSON.parseArray(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        Map<String, JSONObject> indexed = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            JSONObject result = results.getJSONObject(i);
+            StringBuilder key = new StringBuilder(result.getString("benchmark"));
+            JSONObject params = result.getJSONObject("params");
+            if (params != null) {
+                for (Map.Entry<String, Object> param : new TreeMap<>(params).entrySet()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+            key.append(" [").append(result.getString("mode")).append(']');
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    /**
+     * GC profiler 输出的每次操作分配字节数，旧版本JMH的名称带有前缀
+     */
+    private static double alloc(JSONObject result) {
+        JSONObject secondary = result.getJSONObject("secondaryMetrics");
+        if (secondary == null) {
+            return Double.NaN;
+        }
+        for (String name : secondary.keySet()) {
+            if (name.endsWith(ALLOC_METRIC)) {
+                return secondary.getJSONObject(name).getDoubleValue("score");
+            }
+        }
+        return Double.NaN;
+    }
+}
@@ -0,0 +1,72 @@
+package cn.wangchen.security.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 运行安全链路的基准测试，带GC profiler，并与基线对比
+ *
+ *  打包
+ *  mvn -pl distributed-security-benchmarks -am package
+ *
+ *  运行全部，或只运行名称匹配的测试
+ *  java -jar distributed-security-benchmarks/target/benchmarks.jar [正则]
+ *
+ *  -Dresult：本次结果，默认 target/jmh-result.json
+ *  -Dbaseline：基线结果，默认 benchmarks-baseline.json，不存在时只输出本次结果
+ *  -Dthreshold：回退阈值，默认 0.10
+ *  -DupdateBaseline=true：对比后把本次结果保存为基线
+ *
+ * 出现回退时进程退出码为 1，可以直接用于持续集成
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 11:50
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackage().getName() + ".*";
+        Path result = Paths.get(System.getProperty("result", "target/jmh-result.json"));
+        Path baseline = Paths.get(System.getProperty("baseline", "benchmarks-baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("threshold", "0.10"));
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(result.toString())
+            .build();
+        new Runner(options).run();
+
+        int regressions = 0;
+        if (Files.exists(baseline)) {
+            BaselineReport report = new BaselineReport(threshold);
+            regressions = report.compare(baseline, result);
+            report.getLines().forEach(System.out::println);
+            Path reportFile = result.resolveSibling("jmh-report.txt");
+            Files.write(reportFile, report.getLines(), StandardCharsets.UTF_8);
+            System.out.println("对比报告: " + reportFile.toAbsolutePath());
+        } else {
+            System.out.println("没有基线结果: " + baseline.toAbsolutePath());
+        }
+
+        if (Boolean.getBoolean("updateBaseline")) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("已更新基线: " + baseline.toAbsolutePath());
+        }
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,86 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.distributed.uaa.metrics.TimedClientDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * uaa 的 JdbcClientDetailsService 查询客户端注册信息，使用内嵌H2数据库
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 10:55
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ClientDetailsBenchmark {
+
+    @Param({"10", "1000"})
+    public int clientCount;
+
+    private EmbeddedDatabase database;
+
+    private ClientDetailsService jdbcClientDetailsService;
+
+    private ClientDetailsService timedClientDetailsService;
+
+    @Setup
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("classpath:schema-oauth.sql")
+            .build();
+        JdbcClientDetailsService service = new JdbcClientDetailsService(database);
+        for (int i = 0; i < clientCount; i++) {
+            BaseClientDetails client = new BaseClientDetails("c" + i, "order,gateway", "all",
+                "authorization_code,password,client_credentials,implicit,refresh_token", "ROLE_ADMIN", "http://www.baidu.com");
+            client.setClientSecret("secret");
+            service.addClientDetails(client);
+        }
+        jdbcClientDetailsService = service;
+        timedClientDetailsService = new TimedClientDetailsService(service, new SimpleMeterRegistry().timer("auth.client.lookup"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public ClientDetails jdbcLookup() {
+        return jdbcClientDetailsService.loadClientByClientId("c" + ThreadLocalRandom.current().nextInt(clientCount));
+    }
+
+    @Benchmark
+    public ClientDetails timedLookup() {
+        return timedClientDetailsService.loadClientByClientId("c" + ThreadLocalRandom.current().nextInt(clientCount));
+    }
+}
@@ -0,0 +1,160 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.gateway.limit.AdaptiveConcurrencyLimiter;
+import cn.wangchen.security.gateway.limit.VegasLimit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 验证网关的自适应并发限制：后端变慢时，被接受请求的p99保持有界
+ *  桩后端：固定的工作线程数，超出的请求排队，单次处理耗时先正常后变慢
+ *  客户端：固定数量的线程循环请求，被拒绝后稍等再试
+ *  分别在不限制和自适应限制下运行，输出各阶段被接受请求的延迟分位数和拒绝数
+ *  自适应上限没有收敛（超过后端工作线程数的两倍）或变慢阶段的p99不低于不限制时，以非0退出
+ *
+ *  java -cp distributed-security-benchmarks/target/benchmarks.jar cn.wangchen.security.benchmarks.ConcurrencyLimitSimulation
+ *
+ *  -Dclients：客户端线程数，默认 60
+ *  -Dworkers：后端工作线程数，默认 20
+ *  -Dseconds：每个阶段的时长，默认 5
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 21:30
+ */
+public class ConcurrencyLimitSimulation {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 60);
+
+    private static final int WORKERS = Integer.getInteger("workers", 20);
+
+    private static final int SECONDS = Integer.getInteger("seconds", 5);
+
+    /**
+     * 各阶段后端单次处理耗时，单位毫秒
+     */
+    private static final String[] PHASES = {"normal", "degraded", "recovered"};
+
+    private static final int[] SERVICE_MILLIS = {10, 40, 10};
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("客户端 %d，后端工作线程 %d，每阶段 %d 秒%n", CLIENTS, WORKERS, SECONDS);
+        Result unlimited = run("unlimited", new AdaptiveConcurrencyLimiter(new VegasLimit(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 100, 2000)));
+        Result adaptive = run("adaptive", new AdaptiveConcurrencyLimiter(new VegasLimit(20, 4, 500, 100, 2000)));
+
+        System.out.println();
+        for (int i = 0; i < PHASES.length; i++) {
+            check(PHASES[i] + " 上限收敛", adaptive.limits[i] <= WORKERS * 2,
+                String.format("%d <= %d", adaptive.limits[i], WORKERS * 2));
+        }
+        check("degraded p99 有界", adaptive.p99[1] < unlimited.p99[1],
+            String.format("%.1f < %.1f", adaptive.p99[1], unlimited.p99[1]));
+    }
+
+    private static void check(String name, boolean passed, String detail) {
+        System.out.printf("%-24s %-6s %s%n", name, passed ? "通过" : "失败", detail);
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static Result run(String name, AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+        Semaphore backend = new Semaphore(WORKERS, true);
+        AtomicInteger phase = new AtomicInteger();
+        List<List<Long>> latencies = new ArrayList<>();
+        AtomicInteger[] rejected = new AtomicInteger[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            latencies.add(new ArrayList<>());
+            rejected[i] = new AtomicInteger();
+        }
+
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            Thread client = new Thread(() -> {
+                List<List<Long>> local = new ArrayList<>();
+                for (int i = 0; i < PHASES.length; i++) {
+                    local.add(new ArrayList<>());
+                }
+                try {
+                    int current;
+                    while ((current = phase.get()) < PHASES.length) {
+                        long start = System.nanoTime();
+                        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+                        if (permit == null) {
+                            rejected[current].incrementAndGet();
+                            Thread.sleep(5);
+                            continue;
+                        }
+                        backend.acquire();
+                        try {
+                            Thread.sleep(SERVICE_MILLIS[current]);
+                        } finally {
+                            backend.release();
+                            permit.responded();
+                            permit.release(false);
+                        }
+                        local.get(current).add(System.nanoTime() - start);
+                        Thread.sleep(1);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    synchronized (latencies) {
+                        for (int i = 0; i < PHASES.length; i++) {
+                            latencies.get(i).addAll(local.get(i));
+                        }
+                    }
+                    done.countDown();
+                }
+            });
+            client.setDaemon(true);
+            client.start();
+        }
+
+        int[] limits = new int[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(SECONDS));
+            limits[i] = limiter.getLimit();
+            phase.incrementAndGet();
+        }
+        done.await();
+
+        System.out.println();
+        System.out.println(name);
+        System.out.printf("%-10s %8s %8s %8s %8s %10s %8s%n", "phase", "完成", "拒绝", "p50(ms)", "p99(ms)", "max(ms)", "上限");
+        double[] p99 = new double[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            long[] sorted = latencies.get(i).stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            p99[i] = percentile(sorted, 0.99);
+            System.out.printf("%-10s %8d %8d %8.1f %8.1f %10.1f %8s%n", PHASES[i], sorted.length, rejected[i].get(),
+                percentile(sorted, 0.50), p99[i], percentile(sorted, 1.0),
+                limits[i] == Integer.MAX_VALUE ? "-" : Integer.toString(limits[i]));
+        }
+        return new Result(limits, p99);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Result {
+        private final int[] limits;
+        private final double[] p99;
+
+        Result(int[] limits, double[] p99) {
+            this.limits = limits;
+            this.p99 = p99;
+        }
+    }
+}
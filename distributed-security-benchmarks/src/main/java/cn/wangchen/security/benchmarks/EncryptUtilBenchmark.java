@@ -0,0 +1,60 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.gateway.util.EncryptUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EncryptUtil 的 base64 编解码
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 10:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncryptUtilBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int payloadSize;
+
+    private String plain;
+
+    private String encoded;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder(payloadSize);
+        for (int i = 0; i < payloadSize; i++) {
+            //混入中文，与实际的用户名、权限内容接近
+            builder.append(i % 16 == 0 ? '权' : (char) ('a' + i % 26));
+        }
+        plain = builder.toString();
+        encoded = EncryptUtil.encodeUTF8StringBase64(plain);
+    }
+
+    @Benchmark
+    public String encode() {
+        return EncryptUtil.encodeUTF8StringBase64(plain);
+    }
+
+    @Benchmark
+    public String decode() {
+        return EncryptUtil.decodeUTF8StringBase64(encoded);
+    }
+}
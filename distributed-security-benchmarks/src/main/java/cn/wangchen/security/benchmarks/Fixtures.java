@@ -0,0 +1,68 @@
+package cn.wangchen.security.benchmarks;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 各基准测试共用的测试数据
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 09:30
+ */
+final class Fixtures {
+
+    static final String SIGNING_KEY = "uaa123";
+
+    static final String IDENTITY_KEY = "identity123";
+
+    static final String USERNAME = "wangchen";
+
+    private Fixtures() {
+    }
+
+    static List<String> authorities(int count) {
+        List<String> authorities = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            authorities.add("p" + i);
+        }
+        return authorities;
+    }
+
+    /**
+     * 与密码模式签发的令牌一致的认证信息
+     */
+    static OAuth2Authentication authentication(int authorityCount) {
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList(authorities(authorityCount).toArray(new String[0]));
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("client_id", "c1");
+        parameters.put("grant_type", "password");
+        parameters.put("scope", "all");
+        parameters.put("username", USERNAME);
+        OAuth2Request request = new OAuth2Request(parameters, "c1", authorities, true,
+            new HashSet<>(Collections.singletonList("all")), new HashSet<>(Arrays.asList("order", "gateway")),
+            null, null, null);
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(USERNAME, null, authorities);
+        return new OAuth2Authentication(request, user);
+    }
+
+    /**
+     * 指定长度的填充内容，模拟较大的令牌负载
+     */
+    static String padding(int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+}
@@ -0,0 +1,218 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.common.correlation.CorrelationId;
+import cn.wangchen.security.gateway.util.IdentityTokenCodec;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.coyote.http2.Http2Protocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.SocketFactory;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 网关到后端的转发协议：HTTP/1.1 keep-alive 与 h2c（prior knowledge）
+ *  本地启动一个与后端相同配置的 tomcat，/order/r1 返回固定内容
+ *  客户端与网关 ribbon 使用的 OkHttp 一致，请求带与网关转发时相同的身份信封和请求id
+ *
+ * 除吞吐量外，结束时输出建立的连接数和平均每个请求写出的字节数（请求行、header以及HTTP/2的帧开销）：
+ *  HTTP/1.1 每个并发请求占用一个连接，每次都发送完整的身份信封
+ *  h2c 在少量连接上多路复用，同一用户的身份信封经 HPACK 压缩后只发送动态表的索引
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 13:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class H2cBenchmark {
+
+    private static final byte[] BODY = "访问资源1".getBytes(StandardCharsets.UTF_8);
+
+    @Param({"http1", "h2c"})
+    public String protocol;
+
+    @Param({"5", "50"})
+    public int authorityCount;
+
+    private Tomcat tomcat;
+
+    private OkHttpClient client;
+
+    private CountingSocketFactory socketFactory;
+
+    private String url;
+
+    private String identityToken;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    @Setup
+    public void setup() throws IOException, LifecycleException {
+        tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("tomcat").toString());
+        Connector connector = new Connector("HTTP/1.1");
+        connector.setPort(0);
+        //与后端 Http2Config 的配置一致
+        Http2Protocol http2 = new Http2Protocol();
+        http2.setMaxConcurrentStreams(200);
+        http2.setMaxConcurrentStreamExecution(200);
+        connector.addUpgradeProtocol(http2);
+        tomcat.getService().addConnector(connector);
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("/order", Files.createTempDirectory("order").toString());
+        Tomcat.addServlet(context, "r1", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("text/plain;charset=UTF-8");
+                response.setContentLength(BODY.length);
+                response.getOutputStream().write(BODY);
+            }
+        });
+        context.addServletMappingDecoded("/r1", "r1");
+        tomcat.start();
+        url = "http://127.0.0.1:" + connector.getLocalPort() + "/order/r1";
+
+        socketFactory = new CountingSocketFactory();
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+            .socketFactory(socketFactory)
+            .connectionPool(new ConnectionPool(256, 5, TimeUnit.MINUTES));
+        if ("h2c".equals(protocol)) {
+            builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        } else {
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        }
+        client = builder.build();
+
+        identityToken = new IdentityTokenCodec(Fixtures.IDENTITY_KEY)
+            .encode(Fixtures.USERNAME, Fixtures.authorities(authorityCount), System.currentTimeMillis() / 1000L + 3600);
+    }
+
+    @TearDown
+    public void tearDown() throws LifecycleException {
+        long count = Math.max(1, requests.get());
+        System.out.printf("%n%s authorities=%d 连接数 %d，平均每个请求写出 %d 字节，身份信封 %d 字节%n",
+            protocol, authorityCount, socketFactory.connections.get(), socketFactory.bytesWritten.get() / count, identityToken.length());
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+        tomcat.stop();
+        tomcat.destroy();
+    }
+
+    @Benchmark
+    public int r1() throws IOException {
+        Request request = new Request.Builder()
+            .url(url)
+            .header(IdentityTokenCodec.HEADER_NAME, identityToken)
+            .header(CorrelationId.HEADER, UUID.randomUUID().toString())
+            .build();
+        try (Response response = client.newCall(request).execute()) {
+            requests.incrementAndGet();
+            return response.body().bytes().length;
+        }
+    }
+
+    /**
+     * 统计建立的连接数和写出的字节数，OkHttp 只调用无参的 createSocket
+     */
+    private static class CountingSocketFactory extends SocketFactory {
+
+        private final AtomicLong connections = new AtomicLong();
+
+        private final AtomicLong bytesWritten = new AtomicLong();
+
+        @Override
+        public Socket createSocket() {
+            connections.incrementAndGet();
+            return new CountingSocket(bytesWritten);
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class CountingSocket extends Socket {
+
+        private final AtomicLong bytesWritten;
+
+        private OutputStream counting;
+
+        private CountingSocket(AtomicLong bytesWritten) {
+            this.bytesWritten = bytesWritten;
+        }
+
+        @Override
+        public synchronized OutputStream getOutputStream() throws IOException {
+            if (counting == null) {
+                counting = new FilterOutputStream(super.getOutputStream()) {
+                    @Override
+                    public void write(int b) throws IOException {
+                        bytesWritten.incrementAndGet();
+                        this.out.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        bytesWritten.addAndGet(len);
+                        this.out.write(b, off, len);
+                    }
+                };
+            }
+            return counting;
+        }
+    }
+}
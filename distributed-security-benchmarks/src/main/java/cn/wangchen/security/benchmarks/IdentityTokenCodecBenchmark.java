@@ -0,0 +1,97 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.distributed.order.util.EncryptUtil;
+import cn.wangchen.security.distributed.order.util.IdentityTokenCodec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 身份信封的编解码，不经过过滤器
+ *  encode：网关生成信封（序列化 + HMAC签名）
+ *  decode：资源服务校验签名并解码
+ *  legacyJsonDecode：原来的 json-token（base64 + json）解码，作为对照
+ * 两种header的长度在 setup 时打印
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 10:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdentityTokenCodecBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int authorityCount;
+
+    private cn.wangchen.security.gateway.util.IdentityTokenCodec gatewayCodec;
+
+    private IdentityTokenCodec orderCodec;
+
+    private List<String> authorities;
+
+    private long expiresAt;
+
+    private String header;
+
+    private String legacyHeader;
+
+    @Setup
+    public void setup() {
+        gatewayCodec = new cn.wangchen.security.gateway.util.IdentityTokenCodec(Fixtures.IDENTITY_KEY);
+        orderCodec = new IdentityTokenCodec(Fixtures.IDENTITY_KEY);
+        authorities = Fixtures.authorities(authorityCount);
+        expiresAt = System.currentTimeMillis() / 1000L + 3600;
+        header = gatewayCodec.encode(Fixtures.USERNAME, authorities, expiresAt);
+
+        Map<String, Object> jsonToken = new HashMap<>();
+        jsonToken.put("client_id", "c1");
+        jsonToken.put("grant_type", "password");
+        jsonToken.put("scope", "all");
+        jsonToken.put("username", Fixtures.USERNAME);
+        jsonToken.put("authorities", authorities);
+        legacyHeader = EncryptUtil.encodeUTF8StringBase64(JSON.toJSONString(jsonToken));
+
+        System.out.println();
+        System.out.println("json-token 长度: " + legacyHeader.length() + ", "
+            + IdentityTokenCodec.HEADER_NAME + " 长度: " + header.length());
+    }
+
+    @Benchmark
+    public String encode() {
+        return gatewayCodec.encode(Fixtures.USERNAME, authorities, expiresAt);
+    }
+
+    @Benchmark
+    public IdentityTokenCodec.Identity decode() {
+        return orderCodec.decode(header);
+    }
+
+    @Benchmark
+    public String[] legacyJsonDecode() {
+        JSONObject jsonObject = JSON.parseObject(EncryptUtil.decodeUTF8StringBase64(legacyHeader));
+        JSONArray authoritiesArr = jsonObject.getJSONArray("authorities");
+        jsonObject.getString("username");
+        return authoritiesArr.toArray(new String[authoritiesArr.size()]);
+    }
+}
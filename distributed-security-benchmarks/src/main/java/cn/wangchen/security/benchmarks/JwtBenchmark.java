@@ -0,0 +1,84 @@
+package cn.wangchen.security.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * jwt令牌的签发（增强 + HMAC签名）和验证（验签 + 解析）
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 09:45
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int authorityCount;
+
+    /**
+     * 令牌中附加信息的字节数
+     */
+    @Param({"0", "256", "2048"})
+    public int payloadSize;
+
+    private JwtAccessTokenConverter converter;
+
+    private JwtTokenStore tokenStore;
+
+    private OAuth2Authentication authentication;
+
+    private String tokenValue;
+
+    @Setup
+    public void setup() throws Exception {
+        converter = new JwtAccessTokenConverter();
+        converter.setSigningKey(Fixtures.SIGNING_KEY);
+        converter.afterPropertiesSet();
+        tokenStore = new JwtTokenStore(converter);
+        authentication = Fixtures.authentication(authorityCount);
+        tokenValue = issue().getValue();
+    }
+
+    @Benchmark
+    public OAuth2AccessToken issue() {
+        DefaultOAuth2AccessToken token = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        token.setExpiration(new Date(System.currentTimeMillis() + 7200 * 1000L));
+        token.setScope(authentication.getOAuth2Request().getScope());
+        if (payloadSize > 0) {
+            token.setAdditionalInformation(Collections.singletonMap("payload", Fixtures.padding(payloadSize)));
+        }
+        return converter.enhance(token, authentication);
+    }
+
+    @Benchmark
+    public OAuth2Authentication verify() {
+        //与资源服务的 DefaultTokenServices.loadAuthentication 一致，先读令牌再读认证信息
+        OAuth2AccessToken accessToken = tokenStore.readAccessToken(tokenValue);
+        return tokenStore.readAuthentication(accessToken);
+    }
+}
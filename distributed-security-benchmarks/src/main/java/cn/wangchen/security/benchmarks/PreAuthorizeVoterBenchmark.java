@@ -0,0 +1,98 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.distributed.order.access.AuthoritySet;
+import cn.wangchen.security.distributed.order.access.CachingPreAuthorizeVoter;
+import cn.wangchen.security.distributed.order.controller.OrderController;
+import cn.wangchen.security.distributed.order.filter.IdentityAuthenticationToken;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * order-service 上 @PreAuthorize 的判定
+ *  spel：原来的 PreInvocationAuthorizationAdviceVoter，每次执行SpEL
+ *  cached：CachingPreAuthorizeVoter，编译后的谓词 + 按权限集合缓存的判定结果
+ * 权限按 pN..p1 的顺序排列，需要的权限 p2 接近末尾；authorityCount=1 时只有 p1，判定为拒绝
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 10:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreAuthorizeVoterBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int authorityCount;
+
+    private PreInvocationAuthorizationAdviceVoter spelVoter;
+
+    private CachingPreAuthorizeVoter cachingVoter;
+
+    private Authentication authentication;
+
+    private MethodInvocation invocation;
+
+    private List<ConfigAttribute> attributes;
+
+    @Setup
+    public void setup() throws Exception {
+        List<String> authorities = Fixtures.authorities(authorityCount);
+        Collections.reverse(authorities);
+        //与经网关转发的请求一致，权限集合随身份信封创建
+        List<GrantedAuthority> grantedAuthorities = AuthorityUtils.createAuthorityList(authorities.toArray(new String[0]));
+        authentication = new IdentityAuthenticationToken(Fixtures.USERNAME, grantedAuthorities, AuthoritySet.of(grantedAuthorities));
+
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(expressionHandler);
+        spelVoter = new PreInvocationAuthorizationAdviceVoter(expressionAdvice);
+        cachingVoter = new CachingPreAuthorizeVoter(spelVoter, 10000);
+
+        Method r1 = OrderController.class.getMethod("r1");
+        attributes = new ArrayList<>(
+            new PrePostAnnotationSecurityMetadataSource(new ExpressionBasedAnnotationAttributeFactory(expressionHandler))
+                .getAttributes(r1, OrderController.class));
+        invocation = new SimpleMethodInvocation(new OrderController(), r1);
+        cachingVoter.precompile(r1, OrderController.class);
+    }
+
+    @Benchmark
+    public int spel() {
+        return spelVoter.vote(authentication, invocation, attributes);
+    }
+
+    @Benchmark
+    public int cached() {
+        return cachingVoter.vote(authentication, invocation, attributes);
+    }
+}
@@ -0,0 +1,132 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.distributed.uaa.datasource.ReadWriteRoutingDataSource;
+import cn.wangchen.security.distributed.uaa.datasource.ReplicaClientDetailsService;
+import cn.wangchen.security.distributed.uaa.metrics.TimedClientDetailsService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.tools.Server;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.client.BaseClientDetails;
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+import org.springframework.security.oauth2.provider.code.JdbcAuthorizationCodeServices;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Collections;
+
+/**
+ * 用两个 H2 内存库代替主库和从库，演示 uaa 的读写分离
+ *  从库通过 H2 的 tcp 服务访问，停止 tcp 服务模拟从库宕机
+ *  两个库之间没有复制，客户端 c1 在两个库中的 scope 不同，用来区分查询落在哪个库上
+ *  与 uaa 的 clientDetailsService 一样在外面包装 TimedClientDetailsService，修改客户端也经过它
+ *
+ *  java -cp distributed-security-benchmarks/target/benchmarks.jar cn.wangchen.security.benchmarks.ReadWriteRoutingDemo
+ *
+ * 依次检查：查询走从库；修改后的读己之写窗口内走主库；窗口过后回到从库；
+ * 从库宕机时查询改到主库；授权码的生成和使用只在主库上。任何一项不符合预期时退出码为 1
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 15:20
+ */
+public class ReadWriteRoutingDemo {
+
+    private static final long READ_YOUR_WRITES_MILLIS = 500;
+
+    public static void main(String[] args) throws Exception {
+        int port = freePort();
+        Server replicaServer = Server.createTcpServer("-tcpPort", String.valueOf(port)).start();
+
+        String primaryUrl = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+        String replicaUrl = "jdbc:h2:tcp://localhost:" + port + "/mem:replica;DB_CLOSE_DELAY=-1";
+        initialize(primaryUrl, "primary");
+        initialize(replicaUrl, "replica");
+        HikariDataSource primary = pool("primary", primaryUrl, false);
+        HikariDataSource replica = pool("replica", replicaUrl, true);
+
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, Collections.singletonList(replica), 1);
+        dataSource.afterPropertiesSet();
+        TimedClientDetailsService clientDetailsService = new TimedClientDetailsService(
+            new ReplicaClientDetailsService(new JdbcClientDetailsService(dataSource), READ_YOUR_WRITES_MILLIS),
+            new SimpleMeterRegistry().timer("auth.client.lookup"));
+        try {
+            check("查询走从库", "replica", scope(clientDetailsService.loadClientByClientId("c1")));
+
+            BaseClientDetails updated = new BaseClientDetails(clientDetailsService.loadClientByClientId("c1"));
+            updated.setScope(Collections.singleton("updated"));
+            clientDetailsService.updateClientDetails(updated);
+            check("修改后在窗口内走主库", "updated", scope(clientDetailsService.loadClientByClientId("c1")));
+
+            Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+            check("窗口过后回到从库", "replica", scope(clientDetailsService.loadClientByClientId("c1")));
+
+            replicaServer.stop();
+            check("从库宕机，查询失败后改到主库", "updated", scope(clientDetailsService.loadClientByClientId("c1")));
+            dataSource.checkReplicas();
+            check("健康检查排除从库", "0", String.valueOf(dataSource.getHealthyReplicaCount()));
+            check("没有健康的从库时直接查主库", "updated", scope(clientDetailsService.loadClientByClientId("c1")));
+
+            JdbcAuthorizationCodeServices codeServices = new JdbcAuthorizationCodeServices(dataSource);
+            String code = codeServices.createAuthorizationCode(Fixtures.authentication(1));
+            check("授权码写入主库", "1", String.valueOf(count(primary, code)));
+            codeServices.consumeAuthorizationCode(code);
+            check("授权码从主库删除", "0", String.valueOf(count(primary, code)));
+
+            System.out.printf("从库读 %d 次，无从库时改到主库 %d 次%n", dataSource.getReplicaReads(), dataSource.getPrimaryFallbacks());
+        } finally {
+            dataSource.close();
+            replicaServer.stop();
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url, boolean readOnly) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(4);
+        dataSource.setConnectionTimeout(1000);
+        dataSource.setReadOnly(readOnly);
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    /**
+     * 建表，写入 c1，scope 为库名；从库的连接池是只读的，这里直接连接
+     */
+    private static void initialize(String url, String name) {
+        DataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema-oauth.sql")).execute(dataSource);
+        BaseClientDetails client = new BaseClientDetails("c1", "order,gateway", name,
+            "authorization_code,password,client_credentials,implicit,refresh_token", "ROLE_ADMIN", "http://www.baidu.com");
+        client.setClientSecret("secret");
+        new JdbcClientDetailsService(dataSource).addClientDetails(client);
+    }
+
+    private static int count(DataSource dataSource, String code) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from oauth_code where code = ?", Integer.class, code);
+    }
+
+    private static String scope(ClientDetails client) {
+        return client.getScope().iterator().next();
+    }
+
+    private static void check(String name, String expected, String actual) {
+        System.out.printf("%-28s 期望 %-8s 实际 %s%n", name, expected, actual);
+        if (!expected.equals(actual)) {
+            System.exit(1);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
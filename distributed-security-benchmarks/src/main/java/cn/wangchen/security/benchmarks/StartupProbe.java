@@ -0,0 +1,139 @@
+package cn.wangchen.security.benchmarks;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 测量服务从启动到可以接收流量的时间，由 scripts/startup-benchmark.sh 调用
+ *  用与uaa相同的签名秘钥签发一个带 p1、p2 权限的令牌，每隔 10ms 请求一次，直到返回200；
+ *  同时轮询注册中心，直到本次启动的实例状态为 UP
+ *  tomcat 在预热完成、注册为 UP 之前就已经能响应请求，只看第一次200会把 faststart 的预热时间漏掉，
+ *  所以取两者都满足的时间，这时网关才会把请求转过来
+ *
+ *  -Dstart：服务进程启动的时间，epoch毫秒，默认为本进程启动的时间
+ *  -Durl：请求的地址，默认 http://localhost:53021/order/r1
+ *  -Deureka：注册中心的地址，默认 http://localhost:53000/eureka
+ *  -Dapp：服务在注册中心的名称，默认 order-service
+ *  -Dport：实例的端口，用来在注册中心里找到本次启动的实例，默认 53021
+ *  -Dtimeout：最长等待时间，单位秒，默认 120
+ *
+ * 标准输出一行 ttfar_ms=耗时，标准错误输出第一次200和注册为 UP 各自的耗时，超时退出码为 1
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 00:10
+ */
+public class StartupProbe {
+
+    public static void main(String[] args) throws Exception {
+        long start = Long.getLong("start", System.currentTimeMillis());
+        String url = System.getProperty("url", "http://localhost:53021/order/r1");
+        String instances = System.getProperty("eureka", "http://localhost:53000/eureka") + "/apps/"
+            + System.getProperty("app", "order-service").toUpperCase();
+        int port = Integer.getInteger("port", 53021);
+        long deadline = start + TimeUnit.SECONDS.toMillis(Long.getLong("timeout", 120L));
+        String token = issueToken();
+
+        long authorizedAt = -1;
+        long upAt = -1;
+        while (System.currentTimeMillis() < deadline) {
+            if (authorizedAt < 0 && authorized(url, token)) {
+                authorizedAt = System.currentTimeMillis() - start;
+            }
+            if (upAt < 0 && up(instances, port, start)) {
+                upAt = System.currentTimeMillis() - start;
+            }
+            if (authorizedAt >= 0 && upAt >= 0) {
+                System.err.println("first_200_ms=" + authorizedAt + " eureka_up_ms=" + upAt);
+                System.out.println("ttfar_ms=" + Math.max(authorizedAt, upAt));
+                return;
+            }
+            Thread.sleep(10);
+        }
+        System.err.println("first_200_ms=" + (authorizedAt < 0 ? "timeout" : authorizedAt)
+            + " eureka_up_ms=" + (upAt < 0 ? "timeout" : upAt));
+        System.out.println("ttfar_ms=timeout");
+        System.exit(1);
+    }
+
+    private static String issueToken() {
+        JwtAccessTokenConverter converter = new JwtAccessTokenConverter();
+        converter.setSigningKey(Fixtures.SIGNING_KEY);
+        OAuth2Authentication authentication = Fixtures.authentication(2);
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(10)));
+        accessToken.setScope(Collections.singleton("all"));
+        return converter.enhance(accessToken, authentication).getValue();
+    }
+
+    private static boolean authorized(String url, String token) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestProperty("Authorization", "Bearer " + token);
+            connection.setConnectTimeout(200);
+            connection.setReadTimeout(10000);
+            int status = connection.getResponseCode();
+            try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                while (body != null && body.read() >= 0) {
+                    continue;
+                }
+            }
+            return status == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            //端口还没有打开
+            return false;
+        }
+    }
+
+    /**
+     * 注册中心中是否有本次启动的实例，并且状态为 UP
+     *  上一次启动的实例可能还没有注销，用端口和注册时间区分
+     */
+    private static boolean up(String instances, int port, long start) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(instances).openConnection();
+            connection.setRequestProperty("Accept", "application/json");
+            connection.setConnectTimeout(200);
+            connection.setReadTimeout(2000);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                //服务还没有注册
+                return false;
+            }
+            JSONObject application;
+            try (InputStream body = connection.getInputStream()) {
+                application = JSON.parseObject(body, JSONObject.class).getJSONObject("application");
+            }
+            Object instance = application == null ? null : application.get("instance");
+            JSONArray list = instance instanceof JSONArray ? (JSONArray) instance : new JSONArray();
+            if (instance instanceof JSONObject) {
+                list.add(instance);
+            }
+            for (int i = 0; i < list.size(); i++) {
+                JSONObject info = list.getJSONObject(i);
+                JSONObject lease = info.getJSONObject("leaseInfo");
+                if ("UP".equals(info.getString("status"))
+                    && info.getJSONObject("port").getIntValue("$") == port
+                    && lease != null && lease.getLongValue("registrationTimestamp") >= start) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            //注册中心不可用
+            return false;
+        }
+    }
+}
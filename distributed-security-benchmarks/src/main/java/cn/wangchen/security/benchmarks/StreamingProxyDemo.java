@@ -0,0 +1,303 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.gateway.filter.StreamingRouteFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.netflix.zuul.filters.ProxyRequestHelper;
+import org.springframework.cloud.netflix.zuul.filters.ZuulProperties;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 演示网关流式转发大报文时堆内存保持平稳
+ *  本地启动一个桩服务，经 {@link StreamingRouteFilter} 上传、下载各 1GB
+ *  客户端请求体按需生成，响应体只计数不保存，堆内存的变化只来自转发本身
+ *
+ *  java -Xmx64m -DsizeMb=1024 -cp distributed-security-benchmarks/target/benchmarks.jar cn.wangchen.security.benchmarks.StreamingProxyDemo
+ *
+ * 在 64MB 的堆上能完成 1GB 的转发，说明报文没有被整体缓存
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 17:20
+ */
+public class StreamingProxyDemo {
+
+    private static final int CHUNK = 64 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        long size = Long.getLong("sizeMb", 1024L) * 1024 * 1024;
+
+        HttpServer stub = startStub(size);
+        int port = stub.getAddress().getPort();
+        StreamingRouteFilter filter = filter(port);
+
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        try {
+            //上传
+            long start = System.nanoTime();
+            proxy(filter, "POST", "/order/upload", size);
+            report("upload", size, start, sampler);
+
+            //下载
+            sampler.reset();
+            start = System.nanoTime();
+            CountingOutputStream downloadResponse = proxy(filter, "GET", "/order/download", -1);
+            report("download", downloadResponse.getCount(), start, sampler);
+        } finally {
+            sampler.interrupt();
+            stub.stop(0);
+        }
+    }
+
+    private static CountingOutputStream proxy(StreamingRouteFilter filter, String method, String uri, long bodySize) throws Exception {
+        RequestContext.getCurrentContext().unset();
+        RequestContext ctx = RequestContext.getCurrentContext();
+        StreamingRequest request = new StreamingRequest(method, uri, bodySize);
+        StreamingResponse response = new StreamingResponse();
+        ctx.setRequest(request);
+        ctx.setResponse(response);
+        ctx.set(FilterConstants.SERVICE_ID_KEY, "order-service");
+        ctx.addZuulRequestHeader("identity-token", "demo");
+        if (!filter.shouldFilter()) {
+            throw new IllegalStateException("路由没有开启流式转发");
+        }
+        filter.run();
+        return response.body;
+    }
+
+    private static StreamingRouteFilter filter(int port) {
+        StreamingRouteFilter filter = new StreamingRouteFilter();
+        ReflectionTestUtils.setField(filter, "loadBalancerClient", new FixedLoadBalancerClient(
+            new DefaultServiceInstance("order-service-1", "order-service", "localhost", port, false)));
+        ReflectionTestUtils.setField(filter, "proxyRequestHelper", new ProxyRequestHelper(new ZuulProperties()));
+        ReflectionTestUtils.setField(filter, "routes", new String[]{"order-service"});
+        ReflectionTestUtils.setField(filter, "h2cRoutes", new String[0]);
+        ReflectionTestUtils.setField(filter, "bufferCount", 16);
+        ReflectionTestUtils.setField(filter, "bufferSize", CHUNK);
+        ReflectionTestUtils.setField(filter, "bufferWait", 1000L);
+        ReflectionTestUtils.setField(filter, "connectTimeout", 2000);
+        ReflectionTestUtils.setField(filter, "readTimeout", 60000);
+        filter.init();
+        return filter;
+    }
+
+    /**
+     * 桩服务：上传只计数，下载按需生成
+     */
+    private static HttpServer startStub(long size) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/order/upload", exchange -> {
+            long count = 0;
+            byte[] buf = new byte[CHUNK];
+            try (InputStream in = exchange.getRequestBody()) {
+                int n;
+                while ((n = in.read(buf)) >= 0) {
+                    count += n;
+                }
+            }
+            byte[] body = Long.toString(count).getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/order/download", exchange -> {
+            byte[] buf = new byte[CHUNK];
+            exchange.sendResponseHeaders(200, size);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (long remaining = size; remaining > 0; remaining -= CHUNK) {
+                    out.write(buf, 0, (int) Math.min(CHUNK, remaining));
+                }
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static void report(String name, long bytes, long start, HeapSampler sampler) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-9s %,d 字节  %.1f MB/s  堆峰值 %,d KB  堆外 %,d KB%n",
+            name, bytes, bytes / 1048576.0 / seconds, sampler.maxHeap() / 1024, directUsed() / 1024);
+    }
+
+    private static long directUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 请求体按需生成，不占用内存
+     */
+    private static class StreamingRequest extends MockHttpServletRequest {
+
+        private final long bodySize;
+
+        StreamingRequest(String method, String uri, long bodySize) {
+            super(method, uri);
+            this.bodySize = bodySize;
+            if (bodySize >= 0) {
+                addHeader("Content-Type", "application/octet-stream");
+            }
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return bodySize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new DelegatingServletInputStream(new InputStream() {
+                private long remaining = Math.max(bodySize, 0);
+
+                @Override
+                public int read() {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining--;
+                    return 'x';
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, remaining);
+                    remaining -= n;
+                    return n;
+                }
+            });
+        }
+    }
+
+    /**
+     * 响应体只计数
+     */
+    private static class StreamingResponse extends MockHttpServletResponse {
+
+        private final CountingOutputStream body = new CountingOutputStream();
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new DelegatingServletOutputStream(body);
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * 每10毫秒采样一次已用堆内存
+     */
+    private static class HeapSampler extends Thread {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        private final AtomicLong max = new AtomicLong();
+
+        HeapSampler() {
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                long used = memory.getHeapMemoryUsage().getUsed();
+                max.accumulateAndGet(used, Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void reset() {
+            System.gc();
+            max.set(0);
+        }
+
+        long maxHeap() {
+            return max.get();
+        }
+    }
+
+    private static class FixedLoadBalancerClient implements LoadBalancerClient {
+
+        private final ServiceInstance instance;
+
+        FixedLoadBalancerClient(ServiceInstance instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public ServiceInstance choose(String serviceId) {
+            return instance;
+        }
+
+        @Override
+        public <T> T execute(String serviceId, LoadBalancerRequest<T> request) throws IOException {
+            return execute(serviceId, instance, request);
+        }
+
+        @Override
+        public <T> T execute(String serviceId, ServiceInstance serviceInstance, LoadBalancerRequest<T> request) throws IOException {
+            try {
+                return request.apply(serviceInstance);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public URI reconstructURI(ServiceInstance instance, URI original) {
+            return URI.create(instance.getUri() + original.getRawPath());
+        }
+    }
+}
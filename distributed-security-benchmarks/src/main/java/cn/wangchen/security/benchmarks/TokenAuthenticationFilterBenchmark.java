@@ -0,0 +1,101 @@
+package cn.wangchen.security.benchmarks;
+
+import cn.wangchen.security.distributed.order.filter.TokenAuthenticationFilter;
+import cn.wangchen.security.distributed.order.util.EncryptUtil;
+import cn.wangchen.security.distributed.order.util.IdentityTokenCodec;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 资源服务 TokenAuthenticationFilter 校验并解析身份信封
+ *  cacheSize=0：每次校验签名并解码；其他值：同一个信封命中缓存
+ *  legacyJsonToken：原来的 base64 + json 解析，作为对照
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 10:25
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenAuthenticationFilterBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int authorityCount;
+
+    @Param({"0", "100000"})
+    public int cacheSize;
+
+    private TokenAuthenticationFilter filter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private FilterChain chain;
+
+    private String legacyHeader;
+
+    @Setup
+    public void setup() {
+        IdentityTokenCodec codec = new IdentityTokenCodec(Fixtures.IDENTITY_KEY);
+        filter = new TokenAuthenticationFilter(codec, new SimpleMeterRegistry().timer("auth.order.filter"), cacheSize);
+
+        List<String> authorities = Fixtures.authorities(authorityCount);
+        request = new MockHttpServletRequest("GET", "/order/r1");
+        request.addHeader(IdentityTokenCodec.HEADER_NAME,
+            codec.encode(Fixtures.USERNAME, authorities, System.currentTimeMillis() / 1000L + 3600));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+
+        Map<String, Object> jsonToken = new HashMap<>();
+        jsonToken.put("client_id", "c1");
+        jsonToken.put("grant_type", "password");
+        jsonToken.put("scope", "all");
+        jsonToken.put("username", Fixtures.USERNAME);
+        jsonToken.put("authorities", authorities);
+        legacyHeader = EncryptUtil.encodeUTF8StringBase64(JSON.toJSONString(jsonToken));
+    }
+
+    @Benchmark
+    public Authentication decodeEnvelope() throws Exception {
+        //已有认证信息时过滤器不再解析信封，与每个请求开始时一样先清空
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public String[] legacyJsonToken() {
+        JSONObject jsonObject = JSON.parseObject(EncryptUtil.decodeUTF8StringBase64(legacyHeader));
+        JSONArray authoritiesArr = jsonObject.getJSONArray("authorities");
+        jsonObject.getString("username");
+        return authoritiesArr.toArray(new String[authoritiesArr.size()]);
+    }
+}
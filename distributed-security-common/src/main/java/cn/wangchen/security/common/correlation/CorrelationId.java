@@ -0,0 +1,55 @@
+package cn.wangchen.security.common.correlation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 在网关、uaa、微服务之间传递的请求id，用于拆分同一个请求在各服务的认证耗时、关联各服务的日志和审计记录
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 11:00
+ */
+public final class CorrelationId {
+
+    /**
+     * 请求头和响应头
+     */
+    public static final String HEADER = "x-correlation-id";
+
+    /**
+     * 日志中的请求id，日志格式中使用 %X{correlationId}
+     */
+    public static final String MDC_KEY = "correlationId";
+
+    /**
+     * 请求id的最大长度
+     */
+    private static final int MAX_LENGTH = 64;
+
+    private CorrelationId() {
+    }
+
+    /**
+     * 请求id只允许字母、数字和 '-'，且不超过64个字符
+     * 客户端传入的值会写入日志和响应头，不符合的值不能直接使用
+     */
+    public static boolean isValid(String correlationId) {
+        if (correlationId == null || correlationId.isEmpty() || correlationId.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < correlationId.length(); i++) {
+            char c = correlationId.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 生成新的请求id
+     */
+    public static String generate() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -0,0 +1,25 @@
+package cn.wangchen.security.common.correlation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 注册 {@link CorrelationIdFilter}，网关、uaa、订单服务共用，在启动类上 @Import 引入
+ *  security.correlation-id.generate：没有合法的请求id时是否生成，只在网关上开启
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 11:15
+ */
+@Configuration
+public class CorrelationIdConfig {
+
+    @Value("${security.correlation-id.generate:false}")
+    private boolean generate;
+
+    @Bean
+    public CorrelationIdFilter correlationIdFilter() {
+        return new CorrelationIdFilter(generate);
+    }
+}
@@ -0,0 +1,57 @@
+package cn.wangchen.security.common.correlation;
+
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 读取请求id，放入日志上下文和响应头
+ * 在security过滤器之前执行，认证过程的日志也带上请求id
+ *  网关：没有或格式不符合要求时重新生成，之后由 AuthFilter 转发给微服务
+ *  uaa、微服务：只接受网关转发的请求id，格式不符合要求的直接忽略，见 {@link CorrelationId#isValid}
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 11:05
+ */
+public class CorrelationIdFilter extends OncePerRequestFilter implements Ordered {
+
+    private final boolean generate;
+
+    /**
+     * @param generate 没有合法的请求id时是否生成
+     */
+    public CorrelationIdFilter(boolean generate) {
+        this.generate = generate;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = httpServletRequest.getHeader(CorrelationId.HEADER);
+        if (!CorrelationId.isValid(correlationId)) {
+            if (!generate) {
+                filterChain.doFilter(httpServletRequest, httpServletResponse);
+                return;
+            }
+            correlationId = CorrelationId.generate();
+        }
+        MDC.put(CorrelationId.MDC_KEY, correlationId);
+        httpServletResponse.setHeader(CorrelationId.HEADER, correlationId);
+        try {
+            filterChain.doFilter(httpServletRequest, httpServletResponse);
+        } finally {
+            MDC.remove(CorrelationId.MDC_KEY);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package cn.wangchen.security.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 各服务 AuthMetrics 中的耗时统计使用相同的分位数和直方图，便于跨服务对比
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 11:10
+ */
+public final class Timers {
+
+    private Timers() {
+    }
+
+    /**
+     * 注册一个发布 p50、p95、p99 和直方图的计时器
+     * @param registry 指标注册表
+     * @param name 指标名
+     * @param description 描述
+     */
+    public static Timer percentiles(MeterRegistry registry, String name, String description) {
+        return Timer.builder(name)
+            .description(description)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -1,9 +1,13 @@
 package cn.wangchen.security.gateway;
 
+import cn.wangchen.security.audit.AuditConfig;
+import cn.wangchen.security.common.correlation.CorrelationIdConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.zuul.EnableZuulProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author Administrator
@@ -12,6 +16,8 @@ import org.springframework.cloud.netflix.zuul.EnableZuulProxy;
 @SpringBootApplication
 @EnableZuulProxy
 @EnableDiscoveryClient
+@EnableScheduling
+@Import({AuditConfig.class, CorrelationIdConfig.class})
 public class GatewayServer {
     public static void main(String[] args) {
         SpringApplication.run(GatewayServer.class, args);
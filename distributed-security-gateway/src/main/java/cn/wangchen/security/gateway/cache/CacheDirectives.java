@@ -0,0 +1,98 @@
+package cn.wangchen.security.gateway.cache;
+
+/**
+ * 解析 Cache-Control 中与网关缓存相关的指令
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 22:10
+ */
+public final class CacheDirectives {
+
+    private static final CacheDirectives NONE = new CacheDirectives(false, false, false, -1, -1);
+
+    private final boolean noStore;
+
+    private final boolean noCache;
+
+    private final boolean privateOnly;
+
+    private final long maxAge;
+
+    private final long sharedMaxAge;
+
+    private CacheDirectives(boolean noStore, boolean noCache, boolean privateOnly, long maxAge, long sharedMaxAge) {
+        this.noStore = noStore;
+        this.noCache = noCache;
+        this.privateOnly = privateOnly;
+        this.maxAge = maxAge;
+        this.sharedMaxAge = sharedMaxAge;
+    }
+
+    public static CacheDirectives parse(String cacheControl) {
+        if (cacheControl == null || cacheControl.isEmpty()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean privateOnly = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String directive : cacheControl.split(",")) {
+            String name = directive.trim().toLowerCase();
+            String value = null;
+            int eq = name.indexOf('=');
+            if (eq > 0) {
+                value = name.substring(eq + 1).trim().replace("\"", "");
+                name = name.substring(0, eq).trim();
+            }
+            switch (name) {
+                case "no-store":
+                    noStore = true;
+                    break;
+                case "no-cache":
+                    noCache = true;
+                    break;
+                case "private":
+                    privateOnly = true;
+                    break;
+                case "max-age":
+                    maxAge = seconds(value);
+                    break;
+                case "s-maxage":
+                    sharedMaxAge = seconds(value);
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new CacheDirectives(noStore, noCache, privateOnly, maxAge, sharedMaxAge);
+    }
+
+    private static long seconds(String value) {
+        try {
+            return value == null ? -1 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public boolean isNoStore() {
+        return noStore;
+    }
+
+    public boolean isNoCache() {
+        return noCache;
+    }
+
+    public boolean isPrivate() {
+        return privateOnly;
+    }
+
+    /**
+     * 新鲜期，s-maxage 优先，都没有时返回-1
+     */
+    public long getFreshSeconds() {
+        return sharedMaxAge >= 0 ? sharedMaxAge : maxAge;
+    }
+}
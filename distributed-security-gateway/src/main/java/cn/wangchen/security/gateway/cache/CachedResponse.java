@@ -0,0 +1,115 @@
+package cn.wangchen.security.gateway.cache;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 缓存的响应：状态码、header和响应体
+ *  响应体放在堆内，写入后不再修改，多个请求可以同时读取
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 22:20
+ */
+public class CachedResponse {
+
+    private final List<String[]> headers;
+
+    private final byte[] body;
+
+    private final String etag;
+
+    private final boolean privateEntry;
+
+    private volatile long storedAt;
+
+    private volatile long expiresAt;
+
+    /**
+     * @param headers 原样返回的header，每项为 名称、值
+     * @param body 响应体，存入后不能再修改
+     * @param etag 后端返回的ETag
+     * @param privateEntry 是否只属于一个用户
+     * @param ttlMillis 新鲜期，单位毫秒
+     */
+    public CachedResponse(List<String[]> headers, byte[] body, String etag, boolean privateEntry, long ttlMillis) {
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.privateEntry = privateEntry;
+        renew(ttlMillis);
+    }
+
+    /**
+     * 后端确认未修改，重新计算新鲜期
+     * @param ttlMillis 新鲜期，单位毫秒
+     */
+    public void renew(long ttlMillis) {
+        this.storedAt = System.currentTimeMillis();
+        this.expiresAt = storedAt + ttlMillis;
+    }
+
+    public boolean isFresh() {
+        return System.currentTimeMillis() < expiresAt;
+    }
+
+    /**
+     * 客户端的 If-None-Match 是否与缓存的ETag一致
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag) || etag.equals("W/" + value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 直接返回缓存的响应
+     * @param notModified 返回304，不带响应体
+     */
+    public void writeTo(HttpServletResponse response, boolean notModified) throws IOException {
+        response.setStatus(notModified ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_OK);
+        for (String[] header : headers) {
+            response.addHeader(header[0], header[1]);
+        }
+        response.setHeader("Age", Long.toString(Math.max(0, (System.currentTimeMillis() - storedAt) / 1000L)));
+        if (notModified) {
+            return;
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    /**
+     * 读取响应体，交给 SendResponseFilter 输出
+     */
+    public InputStream openBody() {
+        return new ByteArrayInputStream(body);
+    }
+
+    public List<String[]> getHeaders() {
+        return headers;
+    }
+
+    public int getBodySize() {
+        return body.length;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public boolean isPrivateEntry() {
+        return privateEntry;
+    }
+}
@@ -0,0 +1,261 @@
+package cn.wangchen.security.gateway.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 网关的响应缓存，只对 gateway.cache.routes 中的路由生效
+ *  key 由路由、排序后的完整权限集合、请求路径组成，权限集合不同的用户不会共享缓存，
+ *  各部分带长度前缀，请求路径中的任何字符都不会让两个key相同
+ *  后端标记为 private 的响应，key 中再加上用户名，只给同一个用户使用
+ *  按条目数和总字节数做LRU淘汰，过期的条目保留到被淘汰为止，用于ETag重新验证
+ *  响应体放在堆内，总大小受 max-bytes 限制，淘汰后随GC回收
+ *
+ *  gateway.cache.hits / misses / revalidations：命中、未命中、经后端304重新验证的次数
+ *  gateway.cache.hit.ratio：命中率，重新验证也算命中
+ *  gateway.cache.bytes.saved：没有从后端传输的响应体字节数
+ *  gateway.cache.entries / size：条目数、响应体总字节数
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 22:30
+ */
+@Component
+public class ResponseCache {
+
+    /**
+     * 请求上下文中的缓存key，有这个值说明请求的响应需要缓存
+     */
+    public static final String CACHE_KEY = "responseCacheKey";
+
+    /**
+     * 请求上下文中正在向后端重新验证的条目
+     */
+    public static final String REVALIDATING_KEY = "responseCacheRevalidating";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.cache.routes:}")
+    private String[] routes;
+
+    @Value("${gateway.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${gateway.cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    /**
+     * 超过这个大小的响应体不缓存
+     */
+    @Value("${gateway.cache.max-body-size:1048576}")
+    private int maxBodySize;
+
+    /**
+     * 后端没有给出 max-age 时的新鲜期，单位秒，0表示只在有ETag时缓存，每次都重新验证
+     */
+    @Value("${gateway.cache.default-ttl:0}")
+    private long defaultTtl;
+
+    /**
+     * 新鲜期上限，单位秒
+     */
+    @Value("${gateway.cache.max-ttl:300}")
+    private long maxTtl;
+
+    private final Set<String> cacheableRoutes = new HashSet<>();
+
+    /**
+     * 按访问顺序排列，所有访问都在 this 上同步
+     */
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    private long size;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder revalidations = new LongAdder();
+
+    private final LongAdder bytesSaved = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        for (String route : routes) {
+            if (!route.trim().isEmpty()) {
+                cacheableRoutes.add(route.trim());
+            }
+        }
+        FunctionCounter.builder("gateway.cache.hits", hits, LongAdder::sum)
+            .description("缓存命中").register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.misses", misses, LongAdder::sum)
+            .description("缓存未命中").register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.revalidations", revalidations, LongAdder::sum)
+            .description("后端返回304，缓存重新验证").register(meterRegistry);
+        FunctionCounter.builder("gateway.cache.bytes.saved", bytesSaved, LongAdder::sum)
+            .baseUnit("bytes").description("没有从后端传输的响应体字节数").register(meterRegistry);
+        Gauge.builder("gateway.cache.hit.ratio", this, ResponseCache::getHitRatio)
+            .description("命中率").register(meterRegistry);
+        Gauge.builder("gateway.cache.entries", this, ResponseCache::getEntryCount)
+            .description("缓存条目数").register(meterRegistry);
+        Gauge.builder("gateway.cache.size", this, ResponseCache::getSize)
+            .baseUnit("bytes").description("缓存的响应体总字节数").register(meterRegistry);
+    }
+
+    public boolean isCacheable(Object route) {
+        return cacheableRoutes.contains(route);
+    }
+
+    /**
+     * @param route 路由
+     * @param uri 请求路径，包含查询参数
+     * @param authorities 权限集合，见 {@link #authorities(Collection)}，匿名请求为null
+     */
+    public static String key(Object route, String uri, String authorities) {
+        StringBuilder key = new StringBuilder(64).append(route).append('|');
+        if (authorities == null) {
+            key.append('-');
+        } else {
+            key.append(authorities.length()).append(':').append(authorities);
+        }
+        return key.append('|').append(uri.length()).append(':').append(uri).toString();
+    }
+
+    /**
+     * 排序、去重后的完整权限集合，每个权限带长度前缀，与权限顺序无关
+     */
+    public static String authorities(Collection<? extends GrantedAuthority> authorities) {
+        Set<String> sorted = new TreeSet<>();
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() != null) {
+                sorted.add(authority.getAuthority());
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (String authority : sorted) {
+            result.append(authority.length()).append(':').append(authority);
+        }
+        return result.toString();
+    }
+
+    private static String privateKey(String key, String principal) {
+        return key + "|" + principal;
+    }
+
+    /**
+     * 先查共享的条目，再查该用户私有的条目
+     * @param principal 用户名，匿名请求为null
+     * @return 没有时返回null，可能已过期
+     */
+    public synchronized CachedResponse get(String key, String principal) {
+        CachedResponse entry = entries.get(key);
+        if (entry == null && principal != null) {
+            entry = entries.get(privateKey(key, principal));
+        }
+        return entry;
+    }
+
+    /**
+     * 存入一个条目，私有的条目没有用户名时不存
+     */
+    public void put(String key, String principal, CachedResponse entry) {
+        if (entry.isPrivateEntry() && principal == null) {
+            return;
+        }
+        String entryKey = entry.isPrivateEntry() ? privateKey(key, principal) : key;
+        synchronized (this) {
+            //同一个路径的响应可能在 private 和共享之间变化，只保留新的
+            if (entry.isPrivateEntry()) {
+                removeEntry(key);
+            }
+            removeEntry(entryKey);
+            entries.put(entryKey, entry);
+            size += entry.getBodySize();
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || size > maxBytes) && eldest.hasNext()) {
+                CachedResponse evicted = eldest.next().getValue();
+                eldest.remove();
+                released(evicted);
+            }
+        }
+    }
+
+    private void removeEntry(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            released(previous);
+        }
+    }
+
+    private void released(CachedResponse entry) {
+        size -= entry.getBodySize();
+    }
+
+    /**
+     * 为响应体分配空间
+     * @return 超过 max-body-size 时返回null
+     */
+    public byte[] allocate(long contentLength) {
+        if (contentLength < 0 || contentLength > maxBodySize) {
+            return null;
+        }
+        return new byte[(int) contentLength];
+    }
+
+    /**
+     * 根据后端的 Cache-Control 计算新鲜期
+     * @return 单位毫秒，no-cache 或没有 max-age 且默认值为0时返回0
+     */
+    public long ttlMillis(CacheDirectives directives) {
+        if (directives.isNoCache()) {
+            return 0;
+        }
+        long seconds = directives.getFreshSeconds() >= 0 ? directives.getFreshSeconds() : defaultTtl;
+        return TimeUnit.SECONDS.toMillis(Math.min(seconds, maxTtl));
+    }
+
+    public void recordHit(CachedResponse entry) {
+        hits.increment();
+        bytesSaved.add(entry.getBodySize());
+    }
+
+    public void recordRevalidation(CachedResponse entry) {
+        revalidations.increment();
+        bytesSaved.add(entry.getBodySize());
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public double getHitRatio() {
+        double served = hits.sum() + revalidations.sum();
+        double total = served + misses.sum();
+        return total == 0 ? 0 : served / total;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+}
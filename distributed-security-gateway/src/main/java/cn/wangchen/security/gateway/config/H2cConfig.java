@@ -0,0 +1,28 @@
+package cn.wangchen.security.gateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.netflix.ribbon.RibbonClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关到后端服务的 HTTP/2 明文（h2c）转发
+ *  ribbon.okhttp.enabled=true 时 zuul 通过 OkHttp 转发，gateway.h2c.routes 中的路由改为 h2c，
+ *  其余路由仍使用 HTTP/1.1 keep-alive，见 {@link H2cRibbonConfiguration}
+ *
+ * h2c 的请求在少量连接上多路复用，不再每个并发请求占用一个连接；
+ * 每个请求都带的身份信封 identity-token 经过 HPACK 动态表压缩，同一用户的后续请求只发送索引
+ * 后端需要开启 server.http2.enabled，见 order-service、uaa 的 Http2Config
+ *
+ * 只作用于经过 ribbon 转发的请求，gateway.streaming.routes 的流式转发仍为 HTTP/1.1，
+ * 同一个路由不能同时配置在两者中，见 StreamingRouteFilter
+ * OkHttp 需要 3.11 以上，版本在根pom中指定
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 13:00
+ */
+@Configuration
+@ConditionalOnProperty("ribbon.okhttp.enabled")
+@RibbonClients(defaultConfiguration = H2cRibbonConfiguration.class)
+public class H2cConfig {
+}
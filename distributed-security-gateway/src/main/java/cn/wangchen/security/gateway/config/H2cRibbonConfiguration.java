@@ -0,0 +1,58 @@
+package cn.wangchen.security.gateway.config;
+
+import com.netflix.client.config.IClientConfig;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.commons.httpclient.DefaultOkHttpClientFactory;
+import org.springframework.cloud.commons.httpclient.OkHttpClientFactory;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Collections;
+
+/**
+ * 每个 ribbon 客户端的子上下文中的配置，由 {@link H2cConfig} 注册
+ * 不加 @Configuration，避免被组件扫描加入网关的主上下文
+ *
+ * ribbon 的 OkHttpRibbonConfiguration 通过 OkHttpClientFactory 创建 OkHttpClient，超时、连接池等配置不变
+ * 这里在子上下文中定义同名的工厂，对 h2c 路由只使用 H2_PRIOR_KNOWLEDGE 协议：
+ * 不经过 Upgrade 协商，直接发送 HTTP/2 连接前言，后端不支持时连接失败，不会退回 HTTP/1.1
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 13:05
+ */
+public class H2cRibbonConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2cRibbonConfiguration.class);
+
+    /**
+     * 使用 h2c 的路由，即 ribbon 的客户端名称
+     */
+    @Value("${gateway.h2c.routes:}")
+    private String[] routes;
+
+    /**
+     * 与父上下文中 spring cloud commons 定义的bean同名，子上下文中优先使用这个
+     * @return
+     */
+    @Bean
+    public OkHttpClientFactory okHttpClientFactory(IClientConfig config) {
+        String clientName = config.getClientName();
+        boolean h2c = false;
+        for (String route : routes) {
+            if (route.trim().equals(clientName)) {
+                h2c = true;
+            }
+        }
+        if (!h2c) {
+            return new DefaultOkHttpClientFactory(new OkHttpClient.Builder());
+        }
+        logger.info("{} 使用 h2c 转发", clientName);
+        return disableSslValidation -> new DefaultOkHttpClientFactory(new OkHttpClient.Builder())
+            .createBuilder(disableSslValidation)
+            .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+    }
+}
@@ -0,0 +1,110 @@
+package cn.wangchen.security.gateway.config;
+
+import cn.wangchen.security.gateway.cache.ResponseCache;
+import cn.wangchen.security.gateway.util.IdentityTokenCodec;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 快速启动模式下，在注册为 UP 之前预热令牌校验的路径
+ *  用本地的签名秘钥签发一个令牌，反复校验，让jwt解析、验签、吊销检查、身份信封编码、权限指纹被JIT编译
+ *  网关的请求都会转发到后端，这里不向自己发请求，只直接调用
+ *  完成后把eureka中的状态从 STARTING 改为 UP
+ *
+ * faststart.exit-after-warmup=true 时预热完成后直接退出，用于生成 AppCDS 的类列表
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 23:45
+ */
+public class JwtWarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtWarmUpRunner.class);
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private JwtAccessTokenConverter accessTokenConverter;
+
+    @Autowired
+    private IdentityTokenCodec identityTokenCodec;
+
+    @Autowired
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    /**
+     * 直接调用校验方法的次数，需要超过JIT的编译阈值
+     */
+    @Value("${faststart.warmup.iterations:20000}")
+    private int iterations;
+
+    @Value("${faststart.exit-after-warmup:false}")
+    private boolean exitAfterWarmUp;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        List<String> authorities = Arrays.asList("p1", "p2");
+        String token = issueToken(authorities);
+        long expiresAt = System.currentTimeMillis() / 1000L + 60;
+        for (int i = 0; i < iterations; i++) {
+            OAuth2Authentication authentication = tokenStore.readAuthentication(token);
+            ResponseCache.authorities(authentication.getAuthorities());
+            identityTokenCodec.encode(authentication.getName(), authorities, expiresAt);
+        }
+        logger.info("令牌校验预热完成，{} 次校验，耗时 {} ms", iterations, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (exitAfterWarmUp) {
+            System.exit(SpringApplication.exit(context));
+        }
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (manager != null) {
+            manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        }
+    }
+
+    /**
+     * 与密码模式签发的令牌结构一致，只在本进程内使用
+     */
+    private String issueToken(List<String> authorities) {
+        List<GrantedAuthority> grantedAuthorities = AuthorityUtils.createAuthorityList(authorities.toArray(new String[0]));
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "warmup", grantedAuthorities, true,
+            Collections.singleton("all"), new HashSet<>(Collections.singletonList(ResourceConfigServer.RESOURCE_ID)),
+            null, null, null);
+        OAuth2Authentication authentication = new OAuth2Authentication(request,
+            new UsernamePasswordAuthenticationToken("warmup", null, grantedAuthorities));
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)));
+        accessToken.setScope(Collections.singleton("all"));
+        return accessTokenConverter.enhance(accessToken, authentication).getValue();
+    }
+}
@@ -0,0 +1,89 @@
+package cn.wangchen.security.gateway.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.Lifecycle;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 把非热点路径上的bean改为懒加载，缩短上下文刷新的时间
+ * spring boot 2.1 还没有 spring.main.lazy-initialization，这里按同样的思路实现
+ *
+ * 以下bean保持立即创建：
+ *  spring内部的基础设施bean
+ *  Lifecycle、SmartInitializingSingleton，它们依赖启动时的回调，例如eureka注册
+ *  带有 @Scheduled 方法的bean，定时任务只对已创建的bean生效
+ *  faststart.eager-beans 中列出的bean
+ * 热点路径上的bean由 {@link JwtWarmUpRunner} 在注册到eureka之前提前创建
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 23:30
+ */
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+
+    private final Set<String> eagerBeans;
+
+    public LazyInitBeanFactoryPostProcessor(Set<String> eagerBeans) {
+        this.eagerBeans = eagerBeans;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE || eagerBeans.contains(name)) {
+                continue;
+            }
+            Class<?> type = beanType(definition, classLoader);
+            if (type == null || mustBeEager(type)) {
+                continue;
+            }
+            definition.setLazyInit(true);
+        }
+    }
+
+    /**
+     * 不实例化bean，只从定义中推断类型
+     * @return 无法推断时返回null，保持立即创建
+     */
+    private static Class<?> beanType(BeanDefinition definition, ClassLoader classLoader) {
+        String className = definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition) {
+            MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                className = factoryMethod.getReturnTypeName();
+            }
+        }
+        if (className == null) {
+            return null;
+        }
+        try {
+            return ClassUtils.forName(className, classLoader);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static boolean mustBeEager(Class<?> type) {
+        if (Lifecycle.class.isAssignableFrom(type) || SmartInitializingSingleton.class.isAssignableFrom(type)) {
+            return true;
+        }
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(type),
+            method -> scheduled.set(true),
+            method -> !scheduled.get() && AnnotationUtils.findAnnotation(method, Scheduled.class) != null);
+        return scheduled.get();
+    }
+}
@@ -45,8 +45,10 @@ public class ResourceConfigServer{
 
         @Override
         public void configure(HttpSecurity http) throws Exception {
+            //吊销列表只供网关和资源服务在内部直接拉取，不对外转发
             http
                 .authorizeRequests()
+                .antMatchers("/uaa/revocation/list").denyAll()
                 .antMatchers("/uaa/**").permitAll();
         }
     }
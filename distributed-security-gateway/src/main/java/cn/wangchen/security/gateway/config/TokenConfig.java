@@ -1,10 +1,20 @@
 package cn.wangchen.security.gateway.config;
 
+import cn.wangchen.security.common.metrics.TimedTokenStore;
+import cn.wangchen.security.gateway.metrics.AuthMetrics;
+import cn.wangchen.security.gateway.token.IdentityTokenCache;
+import cn.wangchen.security.gateway.token.RevocationAwareJwtTokenStore;
+import cn.wangchen.security.gateway.token.TokenRevocationList;
+import cn.wangchen.security.gateway.util.IdentityTokenCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.support.BasicAuthenticationInterceptor;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
-import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+import org.springframework.web.client.RestTemplate;
 
 /**
  * @author wangchen
@@ -16,6 +26,24 @@ public class TokenConfig {
 
     private String SIGNING_KEY = "uaa123";
 
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Value("${security.revocation.expected-entries:1048576}")
+    private int expectedRevokedTokens;
+
+    @Value("${security.identity.signing-key}")
+    private String identitySigningKey;
+
+    @Value("${security.revocation.client-id:revocation-sync}")
+    private String revocationClientId;
+
+    @Value("${security.revocation.client-secret}")
+    private String revocationClientSecret;
+
+    @Value("${security.identity.cache-size:100000}")
+    private int identityCacheSize;
+
     /**
      * 设置token的加密方式
      *  可以设置对称和非对称加密
@@ -29,11 +57,51 @@ public class TokenConfig {
     }
 
     /**
-     * 使用jwt加密token
+     * 本地令牌吊销列表，从uaa同步
+     * @return
+     */
+    @Bean
+    public TokenRevocationList tokenRevocationList() {
+        return new TokenRevocationList(expectedRevokedTokens);
+    }
+
+    /**
+     * 拉取吊销列表使用，通过eureka解析 uaa-service，以客户端身份（http basic）认证
+     * @return
+     */
+    @Bean
+    @LoadBalanced
+    public RestTemplate revocationRestTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new BasicAuthenticationInterceptor(revocationClientId, revocationClientSecret));
+        return restTemplate;
+    }
+
+    /**
+     * 使用jwt加密token，并检查令牌是否已吊销
+     * 统计验证令牌的耗时
      * @return
      */
     @Bean
     public TokenStore tokenStore() {
-        return new JwtTokenStore(accessTokenConverter());
+        return new TimedTokenStore(new RevocationAwareJwtTokenStore(accessTokenConverter(), tokenRevocationList()), authMetrics.jwtVerify());
+    }
+
+    /**
+     * 网关与微服务之间身份信封的签名，使用独立的秘钥
+     * @return
+     */
+    @Bean
+    public IdentityTokenCodec identityTokenCodec() {
+        return new IdentityTokenCodec(identitySigningKey);
+    }
+
+    /**
+     * 按令牌缓存身份信封
+     * @return
+     */
+    @Bean
+    public IdentityTokenCache identityTokenCache() {
+        return new IdentityTokenCache(identityCacheSize);
     }
 }
@@ -1,23 +1,39 @@
 package cn.wangchen.security.gateway.filter;
 
-import cn.wangchen.security.gateway.util.EncryptUtil;
-import com.alibaba.fastjson.JSON;
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.audit.AuditRecord;
+import cn.wangchen.security.common.correlation.CorrelationId;
+import cn.wangchen.security.gateway.cache.ResponseCache;
+import cn.wangchen.security.gateway.metrics.AuthMetrics;
+import cn.wangchen.security.gateway.token.IdentityTokenCache;
+import cn.wangchen.security.gateway.util.IdentityTokenCodec;
 import com.netflix.zuul.ZuulFilter;
 import com.netflix.zuul.context.RequestContext;
 import com.netflix.zuul.exception.ZuulException;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.jwt.JwtHelper;
+import org.springframework.security.oauth2.common.util.JsonParser;
+import org.springframework.security.oauth2.common.util.JsonParserFactory;
 import org.springframework.security.oauth2.provider.OAuth2Authentication;
-import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationDetails;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 此方法用于处理，已经被 OAuth2 审核过的请求。
  * 然后将security上下文中的 jwt令牌进行，解码。
  * 将用户、权限等信息，转发给其他资源。
+ * 身份信息使用签名的二进制信封传递，见 {@link IdentityTokenCodec}
+ * 信封的有效期不超过访问令牌本身的过期时间
+ * 每次经过都写一条审计记录
+ * 排序后的权限集合和用户名放入请求上下文，供响应缓存区分用户
  * @author wangchen
  * @version 1.0
  * @date 2022/5/22 14:01
@@ -25,6 +41,36 @@ import java.util.*;
 @Component
 public class AuthFilter extends ZuulFilter {
 
+    /**
+     * 请求上下文中排序后的权限集合，见 {@link ResponseCache#authorities}
+     */
+    public static final String AUTHORITIES_KEY = "authorities";
+
+    /**
+     * 请求上下文中的用户名，客户端模式为客户端id
+     */
+    public static final String PRINCIPAL_KEY = "principal";
+
+    private static final JsonParser JSON_PARSER = JsonParserFactory.create();
+
+    @Autowired
+    private IdentityTokenCodec identityTokenCodec;
+
+    @Autowired
+    private IdentityTokenCache identityTokenCache;
+
+    @Autowired
+    private AuthMetrics authMetrics;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    /**
+     * 身份信封有效期，单位秒
+     */
+    @Value("${security.identity.ttl:300}")
+    private long identityTtl;
+
     @Override
     public String filterType() {
         return "pre";
@@ -42,33 +88,79 @@ public class AuthFilter extends ZuulFilter {
 
     @Override
     public Object run() throws ZuulException {
+        long start = System.nanoTime();
+        try {
+            return doRun();
+        } finally {
+            authMetrics.authFilter().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Object doRun() {
         RequestContext ctx = RequestContext.getCurrentContext();
+
+        //请求id已由 CorrelationIdFilter 校验或生成并放入日志上下文，随身份信息一起转发
+        String correlationId = MDC.get(CorrelationId.MDC_KEY);
+        if (correlationId == null) {
+            correlationId = CorrelationId.generate();
+        }
+        ctx.addZuulRequestHeader(CorrelationId.HEADER, correlationId);
+
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (!(authentication instanceof OAuth2Authentication)) {
+            auditLog.record(AuditRecord.GATEWAY_PASS, true, 0, correlationId, null, null, ctx.getRequest().getRequestURI());
             return null;
         }
         OAuth2Authentication oAuth2Authentication = (OAuth2Authentication) authentication;
-        Authentication userAuthentication = oAuth2Authentication.getUserAuthentication();
 
-        //获取当前用户信息
-        String name = userAuthentication.getName();
+        //同一个令牌的身份信封只编码、签名一次
+        long expiresAt = System.currentTimeMillis() / 1000L + identityTtl;
+        Object details = oAuth2Authentication.getDetails();
+        String identityToken;
+        if (details instanceof OAuth2AuthenticationDetails) {
+            String tokenValue = ((OAuth2AuthenticationDetails) details).getTokenValue();
+            identityToken = identityTokenCache.get(tokenValue,
+                () -> Math.min(expiresAt, tokenExpiresAt(tokenValue)), e -> encode(oAuth2Authentication, e));
+        } else {
+            identityToken = encode(oAuth2Authentication, expiresAt);
+        }
 
-        //获取当前权限信息
-        List<String> authorities = new ArrayList<>();
-        userAuthentication.getAuthorities().forEach(grantedAuthority -> authorities.add(grantedAuthority.getAuthority()));
+        //转发给微服务
+        ctx.addZuulRequestHeader(IdentityTokenCodec.HEADER_NAME, identityToken);
+        ctx.set(AUTHORITIES_KEY, ResponseCache.authorities(oAuth2Authentication.getAuthorities()));
+        ctx.set(PRINCIPAL_KEY, oAuth2Authentication.getName());
 
-        //获取request中其他信息
-        OAuth2Request oAuth2Request = oAuth2Authentication.getOAuth2Request();
-        Map<String, String> requestParameters = oAuth2Request.getRequestParameters();
-        Map<String, Object> jsonToken = new HashMap<>(requestParameters);
+        auditLog.record(AuditRecord.GATEWAY_PASS, true, oAuth2Authentication.getAuthorities().size(), correlationId,
+            oAuth2Authentication.getName(), oAuth2Authentication.getOAuth2Request().getClientId(), ctx.getRequest().getRequestURI());
 
-        //把身份信息和权限信息放在json中，加入http的header中
-        jsonToken.put("username", name);
-        jsonToken.put("authorities", authorities);
+        return null;
+    }
 
-        //转发给微服务
-        ctx.addZuulRequestHeader("json-token", EncryptUtil.encodeUTF8StringBase64(JSON.toJSONString(jsonToken)));
+    /**
+     * 访问令牌的过期时间，单位秒；令牌已由资源服务验证过签名，这里只读取 exp
+     * 不是jwt或没有过期时间时返回 Long.MAX_VALUE
+     */
+    private static long tokenExpiresAt(String tokenValue) {
+        try {
+            Object exp = JSON_PARSER.parseMap(JwtHelper.decode(tokenValue).getClaims()).get(AccessTokenConverter.EXP);
+            return exp instanceof Number ? ((Number) exp).longValue() : Long.MAX_VALUE;
+        } catch (RuntimeException e) {
+            return Long.MAX_VALUE;
+        }
+    }
 
-        return null;
+    /**
+     * 把身份信息和权限信息编码为签名的身份信封
+     * 客户端模式的令牌没有用户，使用客户端的身份和权限
+     */
+    private String encode(OAuth2Authentication oAuth2Authentication, long expiresAt) {
+        //获取当前用户信息
+        String name = oAuth2Authentication.getName();
+
+        //获取当前权限信息
+        List<String> authorities = new ArrayList<>();
+        oAuth2Authentication.getAuthorities().forEach(grantedAuthority -> authorities.add(grantedAuthority.getAuthority()));
+
+        return identityTokenCodec.encode(name, authorities, expiresAt);
     }
 }
@@ -0,0 +1,62 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.limit.AdaptiveConcurrencyLimiter;
+import cn.wangchen.security.gateway.limit.ConcurrencyLimiterRegistry;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 按路由的自适应并发限制，超过上限的请求直接返回503，不再转发
+ *  在 PreDecorationFilter 确定路由之后执行，是最后一个pre过滤器，获取许可的时间即开始转发的时间
+ *  获取的许可放在request属性中，由 {@link ConcurrencySampleFilter} 在收到后端响应时记录往返耗时，
+ *  由 {@link ConcurrencyReleaseFilter} 在请求结束时释放
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 21:00
+ */
+@Component
+public class ConcurrencyLimitFilter extends ZuulFilter {
+
+    public static final String PERMIT_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".permit";
+
+    @Autowired
+    private ConcurrencyLimiterRegistry limiterRegistry;
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 10;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse() && limiterRegistry.get(ctx.get(FilterConstants.SERVICE_ID_KEY)) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        AdaptiveConcurrencyLimiter limiter = limiterRegistry.get(ctx.get(FilterConstants.SERVICE_ID_KEY));
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            //快速失败，不占用后端
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            ctx.getResponse().setHeader("Retry-After", "1");
+            return null;
+        }
+        ctx.getRequest().setAttribute(PERMIT_ATTRIBUTE, permit);
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.limit.AdaptiveConcurrencyLimiter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 请求结束时释放 {@link ConcurrencyLimitFilter} 获取的许可，
+ * 把 {@link ConcurrencySampleFilter} 记录的后端往返耗时交给限流算法
+ *  使用servlet过滤器而不是zuul的post过滤器，zuul的过滤器抛出异常时后续过滤器不会执行，许可会泄漏
+ *  后端返回5xx或转发异常视为出错，上限按比例减小
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 21:10
+ */
+@Component
+public class ConcurrencyReleaseFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            Object permit = request.getAttribute(ConcurrencyLimitFilter.PERMIT_ATTRIBUTE);
+            if (permit != null) {
+                request.removeAttribute(ConcurrencyLimitFilter.PERMIT_ATTRIBUTE);
+                ((AdaptiveConcurrencyLimiter.Permit) permit).release(failed || response.getStatus() >= 500);
+            }
+        }
+    }
+}
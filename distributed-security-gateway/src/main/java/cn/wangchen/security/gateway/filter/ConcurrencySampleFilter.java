@@ -0,0 +1,44 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.limit.AdaptiveConcurrencyLimiter;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+/**
+ * 收到后端响应时记录 {@link ConcurrencyLimitFilter} 许可的往返耗时
+ *  第一个执行的post过滤器，此时只收到了响应头，响应体还没有写给客户端，
+ *  缓存响应、写响应的耗时都不计入，限流算法只看到后端的延迟
+ *  转发出错时不记录，由 {@link ConcurrencyReleaseFilter} 按出错采样
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 11:10
+ */
+@Component
+public class ConcurrencySampleFilter extends ZuulFilter {
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return 0;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.getThrowable() == null && ctx.getRequest().getAttribute(ConcurrencyLimitFilter.PERMIT_ATTRIBUTE) != null;
+    }
+
+    @Override
+    public Object run() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        ((AdaptiveConcurrencyLimiter.Permit) ctx.getRequest().getAttribute(ConcurrencyLimitFilter.PERMIT_ATTRIBUTE)).responded();
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.cache.CacheDirectives;
+import cn.wangchen.security.gateway.cache.CachedResponse;
+import cn.wangchen.security.gateway.cache.ResponseCache;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 查询响应缓存，在 PreDecorationFilter 确定路由之后、并发限制之前执行，命中的请求不占用并发许可
+ *  新鲜的条目直接返回，客户端的 If-None-Match 一致时返回304
+ *  过期但有ETag的条目，向后端带上 If-None-Match 重新验证，由 {@link ResponseCacheStoreFilter} 处理结果
+ *  只缓存GET请求，客户端要求 no-store 时不使用也不写入缓存，要求 no-cache 时不使用缓存
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 22:45
+ */
+@Component
+public class ResponseCacheLookupFilter extends ZuulFilter {
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public String filterType() {
+        return FilterConstants.PRE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.PRE_DECORATION_FILTER_ORDER + 5;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse()
+            && "GET".equals(ctx.getRequest().getMethod())
+            && responseCache.isCacheable(ctx.get(FilterConstants.SERVICE_ID_KEY));
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        HttpServletRequest request = ctx.getRequest();
+        CacheDirectives directives = CacheDirectives.parse(request.getHeader("Cache-Control"));
+        if (directives.isNoStore()) {
+            return null;
+        }
+
+        String uri = request.getQueryString() == null ? request.getRequestURI() : request.getRequestURI() + "?" + request.getQueryString();
+        String key = ResponseCache.key(ctx.get(FilterConstants.SERVICE_ID_KEY), uri, (String) ctx.get(AuthFilter.AUTHORITIES_KEY));
+        String principal = (String) ctx.get(AuthFilter.PRINCIPAL_KEY);
+        CachedResponse entry = directives.isNoCache() ? null : responseCache.get(key, principal);
+
+        if (entry != null && entry.isFresh()) {
+            responseCache.recordHit(entry);
+            boolean notModified = entry.matches(request.getHeader("If-None-Match"));
+            ctx.setSendZuulResponse(false);
+            ctx.setResponseStatusCode(notModified ? HttpServletResponse.SC_NOT_MODIFIED : HttpServletResponse.SC_OK);
+            try {
+                ctx.getResponse().setHeader("X-Gateway-Cache", "HIT");
+                entry.writeTo(ctx.getResponse(), notModified);
+            } catch (IOException e) {
+                throw new ZuulException(e, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "写入缓存的响应失败");
+            }
+            return null;
+        }
+
+        responseCache.recordMiss();
+        ctx.set(ResponseCache.CACHE_KEY, key);
+        //客户端自己带了 If-None-Match 时，后端的304直接转给客户端
+        if (entry != null && entry.getEtag() != null && request.getHeader("If-None-Match") == null) {
+            ctx.addZuulRequestHeader("If-None-Match", entry.getEtag());
+            ctx.set(ResponseCache.REVALIDATING_KEY, entry);
+        }
+        return null;
+    }
+}
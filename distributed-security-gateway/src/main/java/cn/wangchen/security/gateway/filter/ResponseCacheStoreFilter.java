@@ -0,0 +1,155 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.cache.CacheDirectives;
+import cn.wangchen.security.gateway.cache.CachedResponse;
+import cn.wangchen.security.gateway.cache.ResponseCache;
+import com.netflix.util.Pair;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 写入响应缓存，在 SendResponseFilter 之前执行，只处理 {@link ResponseCacheLookupFilter} 标记过的请求
+ *  遵循后端的 Cache-Control：no-store 不缓存，private 按用户缓存，max-age / s-maxage 决定新鲜期，no-cache 只用于ETag重新验证
+ *  带 Set-Cookie、压缩过、Vary 了其他header、没有 Content-Length 或超过 max-body-size 的响应不缓存
+ *  响应体读入缓存后，再从缓存交给 SendResponseFilter 输出
+ *  重新验证时后端返回304，刷新条目的新鲜期，把缓存的响应体返回给客户端
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 23:00
+ */
+@Component
+public class ResponseCacheStoreFilter extends ZuulFilter {
+
+    /**
+     * 不缓存的header，由连接或本次请求决定
+     */
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList(
+        "content-length", "transfer-encoding", "connection", "keep-alive", "date", "age", "x-correlation-id"));
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Override
+    public String filterType() {
+        return FilterConstants.POST_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.SEND_RESPONSE_FILTER_ORDER - 10;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.get(ResponseCache.CACHE_KEY) != null && ctx.getThrowable() == null;
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        List<Pair<String, String>> responseHeaders = ctx.getZuulResponseHeaders();
+        CacheDirectives directives = CacheDirectives.parse(header(responseHeaders, "Cache-Control"));
+
+        CachedResponse revalidating = (CachedResponse) ctx.get(ResponseCache.REVALIDATING_KEY);
+        if (revalidating != null && ctx.getResponseStatusCode() == HttpServletResponse.SC_NOT_MODIFIED) {
+            revalidating.renew(responseCache.ttlMillis(directives));
+            responseCache.recordRevalidation(revalidating);
+            responseHeaders.clear();
+            for (String[] header : revalidating.getHeaders()) {
+                responseHeaders.add(new Pair<>(header[0], header[1]));
+            }
+            ctx.setResponseStatusCode(HttpServletResponse.SC_OK);
+            ctx.setResponseGZipped(false);
+            ctx.setResponseDataStream(revalidating.openBody());
+            ctx.getResponse().setContentLength(revalidating.getBodySize());
+            ctx.getResponse().setHeader("X-Gateway-Cache", "REVALIDATED");
+            return null;
+        }
+
+        if (!isStorable(ctx, responseHeaders, directives)) {
+            return null;
+        }
+        long ttl = responseCache.ttlMillis(directives);
+        String etag = header(responseHeaders, "ETag");
+        if (ttl <= 0 && etag == null) {
+            return null;
+        }
+        Long contentLength = ctx.getOriginContentLength();
+        byte[] body = responseCache.allocate(contentLength == null ? -1 : contentLength);
+        if (body == null) {
+            return null;
+        }
+
+        //读满 Content-Length 后关闭，后端连接可以复用
+        int read = 0;
+        try (InputStream stream = ctx.getResponseDataStream()) {
+            int n;
+            while (read < body.length && (n = stream.read(body, read, body.length - read)) >= 0) {
+                read += n;
+            }
+        } catch (IOException e) {
+            throw new ZuulException(e, HttpServletResponse.SC_BAD_GATEWAY, "读取后端响应失败");
+        }
+        if (read < body.length) {
+            //后端提前结束，把已读到的部分原样返回，不缓存
+            ctx.setResponseDataStream(new ByteArrayInputStream(body, 0, read));
+            return null;
+        }
+
+        List<String[]> headers = new ArrayList<>();
+        for (Pair<String, String> header : responseHeaders) {
+            if (!EXCLUDED_HEADERS.contains(header.first().toLowerCase())) {
+                headers.add(new String[]{header.first(), header.second()});
+            }
+        }
+        CachedResponse entry = new CachedResponse(headers, body, etag, directives.isPrivate(), ttl);
+        responseCache.put((String) ctx.get(ResponseCache.CACHE_KEY), (String) ctx.get(AuthFilter.PRINCIPAL_KEY), entry);
+        ctx.setResponseDataStream(entry.openBody());
+        ctx.getResponse().setHeader("X-Gateway-Cache", "MISS");
+        return null;
+    }
+
+    private boolean isStorable(RequestContext ctx, List<Pair<String, String>> responseHeaders, CacheDirectives directives) {
+        if (ctx.getResponseStatusCode() != HttpServletResponse.SC_OK || ctx.getResponseDataStream() == null
+            || ctx.getResponseGZipped() || directives.isNoStore()) {
+            return false;
+        }
+        if (header(responseHeaders, "Set-Cookie") != null) {
+            return false;
+        }
+        String vary = header(responseHeaders, "Vary");
+        if (vary != null) {
+            for (String name : vary.split(",")) {
+                if (!name.trim().equalsIgnoreCase("Accept-Encoding")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static String header(List<Pair<String, String>> headers, String name) {
+        for (Pair<String, String> header : headers) {
+            if (header.first().equalsIgnoreCase(name)) {
+                return header.second();
+            }
+        }
+        return null;
+    }
+}
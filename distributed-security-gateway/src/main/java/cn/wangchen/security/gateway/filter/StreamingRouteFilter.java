@@ -0,0 +1,277 @@
+package cn.wangchen.security.gateway.filter;
+
+import cn.wangchen.security.gateway.cache.ResponseCache;
+import cn.wangchen.security.gateway.limit.AdaptiveConcurrencyLimiter;
+import cn.wangchen.security.gateway.util.BufferPool;
+import com.netflix.zuul.ZuulFilter;
+import com.netflix.zuul.context.RequestContext;
+import com.netflix.zuul.exception.ZuulException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.netflix.zuul.filters.ProxyRequestHelper;
+import org.springframework.cloud.netflix.zuul.filters.support.FilterConstants;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 可选的大报文流式转发，gateway.streaming.enabled=true 时才注册，只处理 gateway.streaming.routes 中的路由，
+ * 在 RibbonRoutingFilter 之前执行
+ *  请求体边读边写到后端，响应体边读边写回客户端，每个请求占用 {@link BufferPool} 中一个固定大小的 byte[]，
+ *  网关内存与报文大小无关；后端socket写不动时不再读取客户端，客户端读不动时不再读取后端
+ *  后端实例仍由ribbon的负载均衡选择，AuthFilter 添加的身份信封、请求id等header照常转发
+ *
+ * 与经过 RibbonRoutingFilter 的转发不同，开启前需要确认路由能接受：
+ *  不经过hystrix，没有熔断、隔离和hystrix超时，只有 connect-timeout、read-timeout
+ *  不经过ribbon的重试，请求体边读边发无法重放，失败直接返回502/504
+ *  失败不计入ribbon的服务器统计，故障实例不会因为这些请求被剔除
+ * 数据经过池中堆上的 byte[] 复制，servlet的输入输出流没有暴露channel，不是零拷贝
+ * multipart上传经过 DispatcherServlet 时会被提前解析，大文件上传请使用 /zuul/order/** 路径
+ * 需要写入响应缓存的请求仍交给ribbon，见 {@link ResponseCache}
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 16:30
+ */
+@Component
+@ConditionalOnProperty("gateway.streaming.enabled")
+public class StreamingRouteFilter extends ZuulFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingRouteFilter.class);
+
+    /**
+     * 逐跳header以及由连接自己生成的header，不转发
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+        "connection", "keep-alive", "proxy-connection", "transfer-encoding", "te", "trailer",
+        "upgrade", "expect", "host", "content-length"));
+
+    /**
+     * HttpURLConnection 支持的方法，其他方法仍交给ribbon
+     */
+    private static final Set<String> METHODS = new HashSet<>(Arrays.asList(
+        "GET", "HEAD", "POST", "PUT", "DELETE", "OPTIONS"));
+
+    @Autowired
+    private LoadBalancerClient loadBalancerClient;
+
+    @Autowired
+    private ProxyRequestHelper proxyRequestHelper;
+
+    /**
+     * 使用流式转发的路由
+     */
+    @Value("${gateway.streaming.routes:}")
+    private String[] routes;
+
+    /**
+     * h2c 转发的路由，不能同时配置为流式转发
+     */
+    @Value("${gateway.h2c.routes:}")
+    private String[] h2cRoutes;
+
+    @Value("${gateway.streaming.buffer-count:128}")
+    private int bufferCount;
+
+    @Value("${gateway.streaming.buffer-size:65536}")
+    private int bufferSize;
+
+    /**
+     * 等待空闲缓冲区的时间，单位毫秒，超时返回503
+     */
+    @Value("${gateway.streaming.buffer-wait:1000}")
+    private long bufferWait;
+
+    @Value("${gateway.streaming.connect-timeout:2000}")
+    private int connectTimeout;
+
+    @Value("${gateway.streaming.read-timeout:60000}")
+    private int readTimeout;
+
+    private Set<String> streamingRoutes;
+
+    private BufferPool bufferPool;
+
+    @PostConstruct
+    public void init() {
+        streamingRoutes = new HashSet<>();
+        for (String route : routes) {
+            if (!route.trim().isEmpty()) {
+                streamingRoutes.add(route.trim());
+            }
+        }
+        //流式转发只有 HTTP/1.1，同时配置时 h2c 不会生效，启动时报错
+        for (String route : h2cRoutes) {
+            if (streamingRoutes.contains(route.trim())) {
+                throw new IllegalStateException("路由 " + route.trim() + " 不能同时配置在 gateway.streaming.routes 和 gateway.h2c.routes 中");
+            }
+        }
+        bufferPool = new BufferPool(bufferCount, bufferSize, bufferWait);
+    }
+
+    @Override
+    public String filterType() {
+        return FilterConstants.ROUTE_TYPE;
+    }
+
+    @Override
+    public int filterOrder() {
+        return FilterConstants.RIBBON_ROUTING_FILTER_ORDER - 5;
+    }
+
+    @Override
+    public boolean shouldFilter() {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        return ctx.sendZuulResponse()
+            && ctx.getRouteHost() == null
+            && ctx.get(ResponseCache.CACHE_KEY) == null
+            && streamingRoutes.contains(ctx.get(FilterConstants.SERVICE_ID_KEY))
+            && METHODS.contains(ctx.getRequest().getMethod());
+    }
+
+    @Override
+    public Object run() throws ZuulException {
+        RequestContext ctx = RequestContext.getCurrentContext();
+        String serviceId = (String) ctx.get(FilterConstants.SERVICE_ID_KEY);
+        //后续的ribbon转发不再执行
+        ctx.setSendZuulResponse(false);
+
+        ServiceInstance instance = loadBalancerClient.choose(serviceId);
+        if (instance == null) {
+            throw new ZuulException("没有可用的服务实例: " + serviceId, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "no instance");
+        }
+
+        byte[] buffer;
+        try {
+            buffer = bufferPool.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ZuulException(e, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "interrupted");
+        }
+        if (buffer == null) {
+            throw new ZuulException("转发缓冲区已用完", HttpServletResponse.SC_SERVICE_UNAVAILABLE, "no buffer");
+        }
+        try {
+            forward(ctx, instance, buffer);
+        } finally {
+            bufferPool.release(buffer);
+        }
+        return null;
+    }
+
+    private void forward(RequestContext ctx, ServiceInstance instance, byte[] buffer) throws ZuulException {
+        HttpServletRequest request = ctx.getRequest();
+        HttpServletResponse response = ctx.getResponse();
+        HttpURLConnection connection = null;
+        try {
+            String query = request.getQueryString();
+            URL url = new URL(instance.getUri() + proxyRequestHelper.buildZuulRequestURI(request) + (query == null ? "" : "?" + query));
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod(request.getMethod());
+            connection.setInstanceFollowRedirects(false);
+            connection.setUseCaches(false);
+            connection.setConnectTimeout(connectTimeout);
+            connection.setReadTimeout(readTimeout);
+
+            //包含 AuthFilter 添加的身份信封和请求id
+            MultiValueMap<String, String> headers = proxyRequestHelper.buildZuulRequestHeaders(request);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (HOP_BY_HOP_HEADERS.contains(header.getKey().toLowerCase())) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    connection.addRequestProperty(header.getKey(), value);
+                }
+            }
+
+            //指定长度或分块发送，HttpURLConnection 不会在内存中缓存整个请求体
+            long contentLength = request.getContentLengthLong();
+            boolean chunked = "chunked".equalsIgnoreCase(request.getHeader("Transfer-Encoding"));
+            if (contentLength > 0 || chunked) {
+                connection.setDoOutput(true);
+                if (contentLength > 0) {
+                    connection.setFixedLengthStreamingMode(contentLength);
+                } else {
+                    connection.setChunkedStreamingMode(bufferPool.getBufferSize());
+                }
+                try (OutputStream out = connection.getOutputStream()) {
+                    copy(request.getInputStream(), out, buffer);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            //响应体在这个过滤器里直接写给客户端，收到响应头时就记录后端往返耗时
+            Object permit = request.getAttribute(ConcurrencyLimitFilter.PERMIT_ATTRIBUTE);
+            if (permit != null) {
+                ((AdaptiveConcurrencyLimiter.Permit) permit).responded();
+            }
+            ctx.setResponseStatusCode(status);
+            for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+                String name = header.getKey();
+                //状态行的key为null
+                if (name == null || HOP_BY_HOP_HEADERS.contains(name.toLowerCase()) || !proxyRequestHelper.isIncludedHeader(name)) {
+                    continue;
+                }
+                for (String value : header.getValue()) {
+                    response.addHeader(name, value);
+                }
+            }
+            long responseLength = connection.getContentLengthLong();
+            if (responseLength >= 0) {
+                response.setContentLengthLong(responseLength);
+            }
+
+            InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (in != null) {
+                try (InputStream body = in) {
+                    copy(body, response.getOutputStream(), buffer);
+                }
+            }
+            response.flushBuffer();
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            if (response.isCommitted()) {
+                //已经开始返回响应，只能中断连接
+                logger.warn("流式转发中断: {} {}", request.getMethod(), request.getRequestURI(), e);
+                return;
+            }
+            int status = e instanceof SocketTimeoutException ? HttpServletResponse.SC_GATEWAY_TIMEOUT : HttpServletResponse.SC_BAD_GATEWAY;
+            throw new ZuulException(e, status, e.getMessage());
+        }
+    }
+
+    /**
+     * 经过缓冲区复制，读一块写一块，写阻塞时不再读取
+     * @return 复制的字节数
+     */
+    private static long copy(InputStream in, OutputStream out, byte[] buffer) throws IOException {
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,118 @@
+package cn.wangchen.security.gateway.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个路由的自适应并发限制
+ *  并发数达到上限时直接拒绝，不排队
+ *  每个请求结束时把后端往返耗时交给 {@link VegasLimit}，更新上限
+ *  往返耗时从获取许可到 {@link Permit#responded()}，不包含向客户端写响应的时间，
+ *  客户端慢不会被当作后端排队
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 20:30
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final VegasLimit algorithm;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(VegasLimit algorithm) {
+        this.algorithm = algorithm;
+        this.limit = algorithm.getLimit();
+    }
+
+    /**
+     * 获取许可
+     * @return 超过上限时返回null
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return null;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return new Permit(this, System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * @param rtt 后端往返耗时，小于0时没有采样，只释放并发数
+     */
+    private void release(long rtt, boolean dropped) {
+        int current = inflight.getAndDecrement();
+        if (rtt >= 0) {
+            limit = algorithm.onSample(rtt, current, dropped);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public double getEstimatedQueue() {
+        return algorithm.getEstimatedQueue();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * 一次请求的许可，只能释放一次
+     */
+    public static final class Permit {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+
+        private final long startNanos;
+
+        private long rtt = -1;
+
+        private boolean released;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * 收到后端响应时调用，记录往返耗时，只记录第一次
+         */
+        public void responded() {
+            if (rtt < 0) {
+                rtt = System.nanoTime() - startNanos;
+            }
+        }
+
+        /**
+         * 没有收到后端响应时，出错的请求按释放时的耗时采样，其他请求不采样
+         * @param dropped 后端出错或超时
+         */
+        public void release(boolean dropped) {
+            if (released) {
+                return;
+            }
+            released = true;
+            long sample = rtt;
+            if (sample < 0 && dropped) {
+                sample = System.nanoTime() - startNanos;
+            }
+            limiter.release(sample, dropped);
+        }
+    }
+}
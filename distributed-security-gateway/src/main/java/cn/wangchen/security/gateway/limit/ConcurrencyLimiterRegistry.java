@@ -0,0 +1,87 @@
+package cn.wangchen.security.gateway.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 开启了自适应并发限制的路由，每个路由一个 {@link AdaptiveConcurrencyLimiter}
+ *  gateway.concurrency.limit：当前上限
+ *  gateway.concurrency.inflight：当前并发数
+ *  gateway.concurrency.queue：估算的后端排队数
+ *  gateway.concurrency.rejected：超过上限被拒绝的请求数
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 20:45
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.concurrency.routes:}")
+    private String[] routes;
+
+    @Value("${gateway.concurrency.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${gateway.concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${gateway.concurrency.max-limit:500}")
+    private int maxLimit;
+
+    /**
+     * 采样窗口，单位毫秒
+     */
+    @Value("${gateway.concurrency.sample-window:100}")
+    private long sampleWindow;
+
+    /**
+     * 统计无排队延迟的窗口，单位毫秒
+     */
+    @Value("${gateway.concurrency.baseline-window:2000}")
+    private long baselineWindow;
+
+    /**
+     * 启动后只读
+     */
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (String route : routes) {
+            route = route.trim();
+            if (route.isEmpty()) {
+                continue;
+            }
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(new VegasLimit(initialLimit, minLimit, maxLimit, sampleWindow, baselineWindow));
+            limiters.put(route, limiter);
+            Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("route", route).description("自适应并发上限").register(meterRegistry);
+            Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("route", route).description("当前并发数").register(meterRegistry);
+            Gauge.builder("gateway.concurrency.queue", limiter, AdaptiveConcurrencyLimiter::getEstimatedQueue)
+                .tag("route", route).description("估算的后端排队数").register(meterRegistry);
+            FunctionCounter.builder("gateway.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tag("route", route).description("超过上限被拒绝的请求").register(meterRegistry);
+        }
+    }
+
+    /**
+     * @param route 路由，即serviceId
+     * @return 没有开启时返回null
+     */
+    public AdaptiveConcurrencyLimiter get(Object route) {
+        return limiters.get(route);
+    }
+}
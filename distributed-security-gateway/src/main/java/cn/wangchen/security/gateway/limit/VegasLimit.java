@@ -0,0 +1,139 @@
+package cn.wangchen.security.gateway.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类似TCP Vegas的并发上限算法，根据延迟的变化调整上限
+ *  请求按采样窗口汇总，每个窗口结束时用平均延迟和最大并发数更新一次上限，避免逐个请求调整带来的振荡
+ *  以最近各采样窗口中最小的平均延迟作为无排队延迟，估算后端的排队数：并发数 * (1 - 无排队延迟 / 平均延迟)
+ *  排队少于 alpha 时增大上限，多于 beta 时减小，窗口内后端出错或超时时按比例减小
+ *  alpha、beta 随上限按对数增长，上限越大调整越平缓
+ *
+ * 无排队延迟只看上一个和当前的基线窗口，后端的基础延迟变化后（例如换了慢的实例）也能重新收敛
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 20:10
+ */
+public class VegasLimit {
+
+    /**
+     * 出错时上限保留的比例
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    /**
+     * 采样窗口内至少需要的请求数
+     */
+    private static final int MIN_SAMPLES = 10;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long sampleWindowNanos;
+
+    private final long baselineWindowNanos;
+
+    private double limit;
+
+    private double estimatedQueue;
+
+    private long sampleStart = System.nanoTime();
+
+    private long rttSum;
+
+    private int sampleCount;
+
+    private int maxInflight;
+
+    private boolean dropped;
+
+    private long baselineStart = sampleStart;
+
+    private long currentBaseline = Long.MAX_VALUE;
+
+    private long previousBaseline = Long.MAX_VALUE;
+
+    /**
+     * @param initialLimit 初始上限
+     * @param minLimit 最小上限
+     * @param maxLimit 最大上限
+     * @param sampleWindowMillis 采样窗口，单位毫秒
+     * @param baselineWindowMillis 统计无排队延迟的窗口，单位毫秒
+     */
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit, long sampleWindowMillis, long baselineWindowMillis) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.sampleWindowNanos = TimeUnit.MILLISECONDS.toNanos(sampleWindowMillis);
+        this.baselineWindowNanos = TimeUnit.MILLISECONDS.toNanos(baselineWindowMillis);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * 记录一次请求的结果
+     * @param rtt 请求耗时，单位纳秒
+     * @param inflight 该请求结束前的并发数
+     * @param didDrop 后端出错或超时
+     * @return 当前上限
+     */
+    public synchronized int onSample(long rtt, int inflight, boolean didDrop) {
+        rttSum += rtt;
+        sampleCount++;
+        maxInflight = Math.max(maxInflight, inflight);
+        dropped |= didDrop;
+
+        long now = System.nanoTime();
+        if (now - sampleStart >= sampleWindowNanos && sampleCount >= MIN_SAMPLES) {
+            update(now, rttSum / sampleCount, maxInflight, dropped);
+            sampleStart = now;
+            rttSum = 0;
+            sampleCount = 0;
+            maxInflight = 0;
+            dropped = false;
+        }
+        return (int) limit;
+    }
+
+    private void update(long now, long rtt, int inflight, boolean didDrop) {
+        if (now - baselineStart >= baselineWindowNanos) {
+            previousBaseline = currentBaseline;
+            currentBaseline = Long.MAX_VALUE;
+            baselineStart = now;
+        }
+        currentBaseline = Math.min(currentBaseline, rtt);
+        long rttNoLoad = Math.min(previousBaseline, currentBaseline);
+
+        if (didDrop) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            return;
+        }
+
+        estimatedQueue = Math.ceil(inflight * (1 - (double) rttNoLoad / rtt));
+        double log = Math.max(1, Math.log10(limit));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        if (estimatedQueue > beta) {
+            limit -= log;
+        } else if (inflight * 2 < limit) {
+            //并发远低于上限时，延迟低不能说明上限还可以增大
+            return;
+        } else if (estimatedQueue <= log) {
+            limit += beta;
+        } else if (estimatedQueue < alpha) {
+            limit += log;
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, limit));
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * 最近一次估算的后端排队数
+     */
+    public synchronized double getEstimatedQueue() {
+        return estimatedQueue;
+    }
+}
@@ -0,0 +1,36 @@
+package cn.wangchen.security.gateway.metrics;
+
+import cn.wangchen.security.common.metrics.Timers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 网关认证链路的耗时统计，通过 /actuator/metrics 查看
+ *  auth.jwt.verify：本地验证jwt令牌
+ *  auth.gateway.filter：AuthFilter 生成身份信封
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 17:10
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer jwtVerify;
+
+    private final Timer authFilter;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.jwtVerify = Timers.percentiles(registry, "auth.jwt.verify", "本地验证jwt令牌");
+        this.authFilter = Timers.percentiles(registry, "auth.gateway.filter", "生成并转发身份信封");
+    }
+
+    public Timer jwtVerify() {
+        return jwtVerify;
+    }
+
+    public Timer authFilter() {
+        return authFilter;
+    }
+}
@@ -0,0 +1,62 @@
+package cn.wangchen.security.gateway.token;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * 按访问令牌缓存已签名的身份信封，同一个令牌只编码、签名一次
+ * 信封临近过期时重新生成；缓存超过上限时整体清空，避免内存无限增长
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 14:45
+ */
+public class IdentityTokenCache {
+
+    /**
+     * 信封剩余有效期小于该值时重新生成，单位秒
+     */
+    private static final long REFRESH_MARGIN = 10;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    public IdentityTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 获取令牌对应的身份信封
+     * @param accessToken 访问令牌
+     * @param expiresAt 新生成信封的过期时间，单位秒，只在需要重新生成时计算
+     * @param encoder 按过期时间生成信封
+     * @return
+     */
+    public String get(String accessToken, LongSupplier expiresAt, LongFunction<String> encoder) {
+        long now = System.currentTimeMillis() / 1000L;
+        Entry entry = entries.get(accessToken);
+        if (entry != null && entry.expiresAt - REFRESH_MARGIN > now) {
+            return entry.header;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        long newExpiresAt = expiresAt.getAsLong();
+        String header = encoder.apply(newExpiresAt);
+        entries.put(accessToken, new Entry(header, newExpiresAt));
+        return header;
+    }
+
+    private static final class Entry {
+        private final String header;
+        private final long expiresAt;
+
+        Entry(String header, long expiresAt) {
+            this.header = header;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
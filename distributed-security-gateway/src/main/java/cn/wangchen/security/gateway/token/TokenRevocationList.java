@@ -0,0 +1,159 @@
+package cn.wangchen.security.gateway.token;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 本地令牌吊销列表
+ *  布隆过滤器负责快速排除未吊销的令牌，绝大多数请求只做几次位运算
+ *  命中布隆过滤器后，再用精确集合确认，避免误判
+ *  精确集合记录令牌过期时间，过期后清理并重建布隆过滤器
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 11:05
+ */
+public class TokenRevocationList {
+
+    private static final int HASH_FUNCTIONS = 7;
+
+    /**
+     * 每个元素占用的位数，误判率约 1%
+     */
+    private static final int BITS_PER_ENTRY = 10;
+
+    /**
+     * jti -> 过期时间（秒）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private final int expectedEntries;
+
+    private volatile BloomFilter filter;
+
+    public TokenRevocationList(int expectedEntries) {
+        this.expectedEntries = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries);
+    }
+
+    /**
+     * 令牌是否已吊销，请求线程调用
+     * @param jti 令牌id
+     * @return
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * 加入吊销记录，同步线程调用
+     * @param jti 令牌id
+     * @param expiresAt 令牌过期时间，单位秒
+     */
+    public void add(String jti, long expiresAt) {
+        if (expiresAt <= currentSeconds()) {
+            return;
+        }
+        //先写精确集合，再写布隆过滤器，布隆过滤器可见时精确集合一定可见
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+    }
+
+    /**
+     * 清理已过期的记录，重建布隆过滤器，使内存不随吊销总数增长
+     */
+    public void purgeExpired() {
+        long now = currentSeconds();
+        Iterator<Map.Entry<String, Long>> it = revoked.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() <= now) {
+                it.remove();
+            }
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2));
+        for (String jti : revoked.keySet()) {
+            rebuilt.put(jti);
+        }
+        filter = rebuilt;
+        //重建期间新增的记录
+        for (String jti : revoked.keySet()) {
+            rebuilt.put(jti);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private static long currentSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+
+    /**
+     * 定长位图，双重哈希计算位置，计算过程不分配对象
+     */
+    private static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+
+        private final long bitCount;
+
+        BloomFilter(int expectedEntries) {
+            long wanted = Math.max(64L, (long) expectedEntries * BITS_PER_ENTRY);
+            int words = (int) Math.min(Integer.MAX_VALUE, (wanted + 63) >>> 6);
+            this.bits = new AtomicLongArray(words);
+            this.bitCount = (long) words << 6;
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= HASH_FUNCTIONS; i++) {
+                long index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            //混合高低位
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
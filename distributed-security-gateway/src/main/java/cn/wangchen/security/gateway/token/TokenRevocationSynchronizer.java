@@ -0,0 +1,79 @@
+package cn.wangchen.security.gateway.token;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 定时从 uaa 增量拉取吊销记录，写入本地吊销列表
+ *  通过eureka解析 uaa-service，每次请求由ribbon选择一个节点，吊销记录在uaa各节点共用的数据库中，从哪个节点拉取结果都一样
+ *  以客户端身份认证，见 TokenConfig#revocationRestTemplate
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 11:52
+ */
+@Component
+public class TokenRevocationSynchronizer {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationSynchronizer.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * 数据库自增id可能乱序提交，每次回退一段重新读取，重复记录不影响结果
+     */
+    private static final long OVERLAP = 100;
+
+    @Autowired
+    private RestTemplate revocationRestTemplate;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @Value("${security.revocation.list-url:http://uaa-service/uaa/revocation/list}")
+    private String listUrl;
+
+    private long lastId = 0;
+
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval:5000}")
+    public void sync() {
+        try {
+            long since = Math.max(0, lastId - OVERLAP);
+            while (true) {
+                String body = revocationRestTemplate.getForObject(listUrl + "?since={since}&limit={limit}", String.class, since, PAGE_SIZE);
+                JSONArray entries = JSON.parseArray(body);
+                if (entries == null || entries.isEmpty()) {
+                    break;
+                }
+                for (int i = 0; i < entries.size(); i++) {
+                    JSONObject entry = entries.getJSONObject(i);
+                    revocationList.add(entry.getString("jti"), entry.getLongValue("exp"));
+                    since = Math.max(since, entry.getLongValue("id"));
+                }
+                lastId = Math.max(lastId, since);
+                if (entries.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        } catch (RestClientException | IllegalStateException e) {
+            //IllegalStateException：eureka中没有可用的uaa节点
+            logger.warn("同步令牌吊销列表失败", e);
+        }
+    }
+
+    /**
+     * 令牌过期后吊销记录也随之失效
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:600000}")
+    public void purge() {
+        revocationList.purgeExpired();
+    }
+}
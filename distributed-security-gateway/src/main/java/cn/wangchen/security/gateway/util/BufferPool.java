@@ -0,0 +1,62 @@
+package cn.wangchen.security.gateway.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 固定数量的缓冲区，启动时一次分配，转发请求体、响应体时借用
+ *  缓冲区用完时借用方等待，等待超时返回null，由调用方拒绝请求
+ *  转发占用的内存上限为 个数 * 大小，与请求体大小无关
+ *
+ * servlet 和 HttpURLConnection 都只提供 InputStream/OutputStream，读写都要经过 byte[]，
+ * 缓冲区放在堆内，直接作为读写的数组，不再额外复制
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 16:10
+ */
+public class BufferPool {
+
+    private final BlockingQueue<byte[]> buffers;
+
+    private final int bufferSize;
+
+    /**
+     * 等待空闲缓冲区的最长时间，单位毫秒
+     */
+    private final long acquireTimeout;
+
+    public BufferPool(int bufferCount, int bufferSize, long acquireTimeout) {
+        this.buffers = new ArrayBlockingQueue<>(bufferCount);
+        this.bufferSize = bufferSize;
+        this.acquireTimeout = acquireTimeout;
+        for (int i = 0; i < bufferCount; i++) {
+            buffers.add(new byte[bufferSize]);
+        }
+    }
+
+    /**
+     * 借用一个缓冲区
+     * @return 等待超时返回null
+     */
+    public byte[] acquire() throws InterruptedException {
+        return buffers.poll(acquireTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 归还缓冲区
+     * @param buffer
+     */
+    public void release(byte[] buffer) {
+        buffers.offer(buffer);
+    }
+
+    public int available() {
+        return buffers.size();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
@@ -0,0 +1,212 @@
+package cn.wangchen.security.gateway.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 网关与微服务之间传递身份信息的二进制信封
+ *
+ * 格式：
+ *  版本(1字节) | 过期时间(varint，秒) | 用户名(varint长度 + utf8) |
+ *  权限个数(varint) | 每个权限(varint长度 + utf8) | HMAC-SHA256 前16字节
+ * 整体使用 base64url（无填充）放入 http header
+ *
+ * 网关和微服务使用同一个签名秘钥，微服务校验签名和过期时间后才信任其中的身份信息
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 14:10
+ */
+public class IdentityTokenCodec {
+
+    public static final String HEADER_NAME = "identity-token";
+
+    private static final byte VERSION = 1;
+
+    private static final int MAC_LENGTH = 16;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Mac 不是线程安全的，每个线程持有一个
+     */
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityTokenCodec(String signingKey) {
+        if (signingKey == null || signingKey.isEmpty()) {
+            throw new IllegalArgumentException("身份信封的签名秘钥为空，通过环境变量 SECURITY_IDENTITY_SIGNING_KEY 配置");
+        }
+        final SecretKeySpec key = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac m = Mac.getInstance(MAC_ALGORITHM);
+                m.init(key);
+                return m;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("无法初始化身份信封签名", e);
+            }
+        });
+    }
+
+    /**
+     * 编码并签名
+     * @param username 用户名
+     * @param authorities 权限
+     * @param expiresAt 过期时间，单位秒
+     * @return
+     */
+    public String encode(String username, List<String> authorities, long expiresAt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + authorities.size() * 16);
+        out.write(VERSION);
+        writeVarint(out, expiresAt);
+        writeString(out, username);
+        writeVarint(out, authorities.size());
+        for (String authority : authorities) {
+            writeString(out, authority);
+        }
+        byte[] body = out.toByteArray();
+        byte[] signed = Arrays.copyOf(body, body.length + MAC_LENGTH);
+        System.arraycopy(sign(body, body.length), 0, signed, body.length, MAC_LENGTH);
+        return ENCODER.encodeToString(signed);
+    }
+
+    /**
+     * 校验签名和过期时间后解码
+     * @param header header中的值
+     * @return 签名错误、格式错误或已过期时返回 null
+     */
+    public Identity decode(String header) {
+        if (header == null || header.isEmpty()) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(header);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int bodyLength = bytes.length - MAC_LENGTH;
+        if (bodyLength <= 1 || bytes[0] != VERSION) {
+            return null;
+        }
+        byte[] expected = sign(bytes, bodyLength);
+        if (!MessageDigest.isEqual(Arrays.copyOf(expected, MAC_LENGTH), Arrays.copyOfRange(bytes, bodyLength, bytes.length))) {
+            return null;
+        }
+        try {
+            Reader reader = new Reader(bytes, 1, bodyLength);
+            long expiresAt = reader.readVarint();
+            if (expiresAt <= System.currentTimeMillis() / 1000L) {
+                return null;
+            }
+            String username = reader.readString();
+            int count = (int) reader.readVarint();
+            List<String> authorities = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                authorities.add(reader.readString());
+            }
+            return new Identity(username, authorities, expiresAt);
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] bytes, int length) {
+        Mac m = mac.get();
+        m.update(bytes, 0, length);
+        return m.doFinal();
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        Reader(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IndexOutOfBoundsException("varint过长");
+        }
+
+        String readString() {
+            int length = (int) readVarint();
+            if (length < 0 || position + length > limit) {
+                throw new IndexOutOfBoundsException("字符串长度越界");
+            }
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        private byte next() {
+            if (position >= limit) {
+                throw new IndexOutOfBoundsException("数据不完整");
+            }
+            return bytes[position++];
+        }
+    }
+
+    /**
+     * 解码后的身份信息
+     */
+    public static class Identity {
+        private final String username;
+        private final List<String> authorities;
+        private final long expiresAt;
+
+        public Identity(String username, List<String> authorities, long expiresAt) {
+            this.username = username;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public List<String> getAuthorities() {
+            return authorities;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }}
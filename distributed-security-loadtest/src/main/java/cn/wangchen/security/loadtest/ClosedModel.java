@@ -0,0 +1,61 @@
+package cn.wangchen.security.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 封闭模型：users 个虚拟用户各自循环执行操作，两次操作之间等待 thinkTimeMillis
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:50
+ */
+public class ClosedModel implements LoadModel {
+
+    private final int users;
+
+    private final long thinkTimeMillis;
+
+    public ClosedModel(int users, long thinkTimeMillis) {
+        this.users = users;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+
+    @Override
+    public String getId() {
+        return "closed";
+    }
+
+    @Override
+    public void run(Runnable operation, Recorder recorder, AtomicLong errors, long durationNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + durationNanos;
+        Thread[] threads = new Thread[users];
+        for (int i = 0; i < users; i++) {
+            threads[i] = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        operation.run();
+                        LoadModel.record(recorder, System.nanoTime() - start);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                    if (thinkTimeMillis > 0) {
+                        try {
+                            TimeUnit.MILLISECONDS.sleep(thinkTimeMillis);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                }
+            }, "loadtest-user-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cn.wangchen.security.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一个压测模型、一个场景的延迟报告，单位微秒
+ *  &lt;name&gt;.hlog：每秒一个区间直方图，可以看出吞吐量和延迟随时间的变化，
+ *      用 HdrHistogram 的 HistogramLogProcessor 截取区间、合并，或导入 HdrHistogram 的在线工具对比多次运行
+ *  &lt;name&gt;.hgrm：整个压测期间的百分位分布，单位毫秒
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 11:00
+ */
+public class HdrReport {
+
+    private final File directory;
+
+    private final String name;
+
+    private final Recorder recorder = new Recorder(LoadModel.HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final Histogram total = new Histogram(LoadModel.HIGHEST_TRACKABLE_MICROS, 3);
+
+    private final HistogramLogWriter logWriter;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final long startNanos = System.nanoTime();
+
+    public HdrReport(File directory, String name) throws FileNotFoundException {
+        this.directory = directory;
+        this.name = name;
+        long now = System.currentTimeMillis();
+        logWriter = new HistogramLogWriter(new File(directory, name + ".hlog"));
+        logWriter.outputComment("[" + name + "] latency in microseconds");
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(now);
+        logWriter.setBaseTime(now);
+        logWriter.outputLegend();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::interval, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public Recorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * 停止记录，写出最后一个区间和百分位分布
+     * @return 整个压测期间的直方图
+     */
+    public Result finish(long errors) throws FileNotFoundException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        interval();
+        logWriter.close();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        try (PrintStream out = new PrintStream(new File(directory, name + ".hgrm"))) {
+            total.outputPercentileDistribution(out, 1000.0);
+        }
+        return new Result(name, total, errors, elapsedNanos);
+    }
+
+    private synchronized void interval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        logWriter.outputIntervalHistogram(interval);
+        total.add(interval);
+    }
+
+    /**
+     * 汇总结果
+     */
+    public static class Result {
+
+        private final String name;
+
+        private final Histogram histogram;
+
+        private final long errors;
+
+        private final long elapsedNanos;
+
+        Result(String name, Histogram histogram, long errors, long elapsedNanos) {
+            this.name = name;
+            this.histogram = histogram;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getThroughput() {
+            return histogram.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s count=%d errors=%d throughput=%.1f/s p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                name, histogram.getTotalCount(), errors, getThroughput(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package cn.wangchen.security.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压测模型
+ *  closed：固定数量的虚拟用户，每个用户上一次操作完成后才发起下一次，吞吐量随延迟下降
+ *  open：按固定速率发起操作，不等待之前的操作完成，延迟从计划的发起时间开始计算，避免协调遗漏
+ *
+ * 延迟以微秒记录，失败的操作只计数，不记录延迟
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:45
+ */
+public interface LoadModel {
+
+    /**
+     * 直方图可以记录的最大延迟，超过的按最大值记录
+     */
+    long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    String getId();
+
+    /**
+     * 持续发起操作，直到经过 durationNanos，返回前等待所有已发起的操作完成
+     */
+    void run(Runnable operation, Recorder recorder, AtomicLong errors, long durationNanos) throws InterruptedException;
+
+    static void record(Recorder recorder, long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+}
@@ -0,0 +1,141 @@
+package cn.wangchen.security.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全链路压测入口，由 scripts/loadtest.sh 调用
+ *  1. 以本地进程启动注册中心、uaa、order-service、网关，见 {@link LocalServices}
+ *  2. 等待网关能把带令牌的 /order/r1 转发到 order-service
+ *  3. 依次对每个压测模型、每个场景预热、压测，写出 HDR 报告，见 {@link HdrReport}
+ *
+ * 参数均为系统属性：
+ *  -Dloadtest.root：工程根目录，默认当前目录
+ *  -Dloadtest.boot：是否启动本地服务，false 时压测已经运行的服务，默认 true
+ *  -Dloadtest.models：closed、open，逗号分隔，默认两者
+ *  -Dloadtest.scenarios：password、authorization-code、refresh、order-r1，逗号分隔，默认全部
+ *  -Dloadtest.users：封闭模型的虚拟用户数，默认 16
+ *  -Dloadtest.think-time：封闭模型两次操作间的等待，毫秒，默认 0
+ *  -Dloadtest.rate：开放模型每秒发起的操作数，默认 200
+ *  -Dloadtest.threads：开放模型的线程数，默认 64
+ *  -Dloadtest.warmup：每次压测前的预热时间，秒，默认 10
+ *  -Dloadtest.duration：每次压测的时间，秒，默认 30
+ *  -Dloadtest.gateway-url：默认 http://localhost:53010
+ *  -Dloadtest.uaa-url：授权码模式直接请求的地址，默认 http://localhost:53020/uaa
+ *  -Dloadtest.service-jvm-args：启动服务的JVM参数，默认 -Xms512m -Xmx512m
+ *  -Dloadtest.startup-timeout：等待服务启动的时间，秒，默认 180
+ *  -Dloadtest.output：报告目录，默认 distributed-security-loadtest/target/loadtest/&lt;时间&gt;
+ *
+ * 报告目录中每个 模型-场景 一组 .hlog、.hgrm，summary.txt 汇总吞吐量和百分位延迟
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 11:30
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        File root = new File(System.getProperty("loadtest.root", ".")).getAbsoluteFile();
+        File output = new File(System.getProperty("loadtest.output",
+            new File(root, "distributed-security-loadtest/target/loadtest/" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())).getPath()));
+        output.mkdirs();
+
+        String gatewayUrl = System.getProperty("loadtest.gateway-url", "http://localhost:53010");
+        OAuthClient client = new OAuthClient(gatewayUrl, System.getProperty("loadtest.uaa-url", "http://localhost:53020/uaa"),
+            "c1", "secret", "http://www.baidu.com", "wangchen", "123");
+        long startupTimeoutMillis = TimeUnit.SECONDS.toMillis(Long.getLong("loadtest.startup-timeout", 180L));
+
+        LocalServices services = new LocalServices(root, output,
+            Arrays.asList(System.getProperty("loadtest.service-jvm-args", "-Xms512m -Xmx512m").trim().split("\\s+")), startupTimeoutMillis);
+        Runtime.getRuntime().addShutdownHook(new Thread(services::close, "loadtest-shutdown"));
+        try {
+            if (Boolean.parseBoolean(System.getProperty("loadtest.boot", "true"))) {
+                services.start();
+            }
+            OAuthClient.Tokens tokens = awaitChain(client, startupTimeoutMillis);
+            run(client, tokens, output);
+        } finally {
+            services.close();
+        }
+    }
+
+    private static void run(OAuthClient client, OAuthClient.Tokens tokens, File output) throws IOException, InterruptedException {
+        List<LoadModel> models = new ArrayList<>();
+        for (String id : list("loadtest.models", "closed,open")) {
+            if ("closed".equals(id)) {
+                models.add(new ClosedModel(Integer.getInteger("loadtest.users", 16), Long.getLong("loadtest.think-time", 0L)));
+            } else if ("open".equals(id)) {
+                models.add(new OpenModel(Double.parseDouble(System.getProperty("loadtest.rate", "200")), Integer.getInteger("loadtest.threads", 64)));
+            } else {
+                throw new IllegalArgumentException("未知的压测模型：" + id);
+            }
+        }
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String id : list("loadtest.scenarios", "password,authorization-code,refresh,order-r1")) {
+            scenarios.add(Scenario.of(id));
+        }
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.warmup", 10L));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.getLong("loadtest.duration", 30L));
+
+        try (PrintStream summary = new PrintStream(new FileOutputStream(new File(output, "summary.txt"), true), true, "UTF-8")) {
+            for (LoadModel model : models) {
+                for (Scenario scenario : scenarios) {
+                    Runnable operation = () -> scenario.execute(client, tokens);
+                    String name = model.getId() + "-" + scenario.getId();
+                    System.out.println("预热 " + name);
+                    model.run(operation, new Recorder(LoadModel.HIGHEST_TRACKABLE_MICROS, 3), new AtomicLong(), warmupNanos);
+
+                    System.out.println("压测 " + name);
+                    AtomicLong errors = new AtomicLong();
+                    HdrReport report = new HdrReport(output, name);
+                    model.run(operation, report.getRecorder(), errors, durationNanos);
+                    HdrReport.Result result = report.finish(errors.get());
+                    System.out.println(result);
+                    summary.println(result);
+                }
+            }
+        }
+        System.out.println("报告已写入 " + output);
+    }
+
+    /**
+     * 网关通过eureka发现 order-service 需要几十秒，申请令牌并请求 /order/r1，直到返回200
+     * @return 压测 refresh、order-r1 场景使用的令牌
+     */
+    private static OAuthClient.Tokens awaitChain(OAuthClient client, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        RuntimeException last = null;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                OAuthClient.Tokens tokens = client.password();
+                client.orderR1(tokens.getAccessToken());
+                return tokens;
+            } catch (RuntimeException e) {
+                last = e;
+                TimeUnit.SECONDS.sleep(1);
+            }
+        }
+        throw new IllegalStateException("等待网关转发 /order/r1 超时", last);
+    }
+
+    private static List<String> list(String property, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : System.getProperty(property, defaultValue).split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,187 @@
+package cn.wangchen.security.loadtest;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在本机以独立进程启动注册中心、uaa、order-service 和网关
+ *  每个服务使用自己模块的classpath和 application.properties，只通过命令行参数覆盖压测需要的配置
+ *  不放在同一个JVM中：四个模块的 application.properties 同名，合并classpath后只有一个生效，
+ *  且 archaius、hystrix 等的配置是JVM级别的静态状态
+ *
+ * uaa 不连接 MySQL，改用进程内的 H2 内存库，启动时执行 loadtest/schema.sql 和 loadtest/data.sql，
+ * 这两个脚本和 H2 驱动从本模块的classpath追加到uaa的classpath上
+ *
+ * 模块的classpath来自 distributed-security-&lt;模块&gt;/target/classpath.txt，由 scripts/loadtest.sh 生成
+ * 网关和 order-service 的身份信封签名秘钥不在配置文件中，没有设置环境变量 SECURITY_IDENTITY_SIGNING_KEY 时
+ * 每次压测随机生成一个，通过环境变量传给各服务
+ * 每个服务的日志写到输出目录下的 &lt;服务&gt;.log，工作目录为 &lt;服务&gt;/，审计日志也在其中
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 11:10
+ */
+public class LocalServices implements Closeable {
+
+    private static final String VERSION = "1.0-SNAPSHOT";
+
+    private static final String IDENTITY_KEY_ENV = "SECURITY_IDENTITY_SIGNING_KEY";
+
+    /**
+     * 拉取吊销列表的客户端秘钥，与 loadtest/data.sql 中的 revocation-sync 客户端一致
+     */
+    private static final String REVOCATION_CLIENT_SECRET_ARG = "--security.revocation.client-secret=revocation-secret";
+
+    private final File root;
+
+    private final File output;
+
+    private final List<String> jvmArgs;
+
+    private final long startupTimeoutMillis;
+
+    private final String identitySigningKey;
+
+    private final List<Process> processes = new ArrayList<>();
+
+    public LocalServices(File root, File output, List<String> jvmArgs, long startupTimeoutMillis) {
+        this.root = root;
+        this.output = output;
+        this.jvmArgs = jvmArgs;
+        this.startupTimeoutMillis = startupTimeoutMillis;
+        String key = System.getenv(IDENTITY_KEY_ENV);
+        if (key == null || key.isEmpty()) {
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            key = Base64.getEncoder().encodeToString(random);
+        }
+        this.identitySigningKey = key;
+    }
+
+    /**
+     * 按依赖顺序启动，每个服务的端口打开后再启动下一个
+     */
+    public void start() throws IOException, InterruptedException {
+        start("discovery", "cn.wangchen.security.distributed.discovery.DiscoveryServer", 53000,
+            Collections.emptyList(),
+            Collections.singletonList("--logging.level.root=warn"));
+
+        start("uaa", "cn.wangchen.security.distributed.uaa.UAAServer", 53020,
+            Arrays.asList(codeSource(LocalServices.class), codeSource(org.h2.Driver.class)),
+            Arrays.asList(
+                "--logging.level.root=warn",
+                "--spring.datasource.url=jdbc:h2:mem:uaa;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.initialization-mode=always",
+                "--spring.datasource.schema=classpath:loadtest/schema.sql",
+                "--spring.datasource.data=classpath:loadtest/data.sql",
+                "--security.session.store=jdbc",
+                "--security.user.authorities=p1,p2"));
+
+        start("order", "cn.wangchen.security.distributed.order.OrderServer", 53021,
+            Collections.emptyList(),
+            Arrays.asList("--logging.level.root=warn", REVOCATION_CLIENT_SECRET_ARG));
+
+        start("gateway", "cn.wangchen.security.gateway.GatewayServer", 53010,
+            Collections.emptyList(),
+            Arrays.asList("--logging.level.root=warn", REVOCATION_CLIENT_SECRET_ARG));
+    }
+
+    private void start(String module, String mainClass, int port, List<String> extraClasspath, List<String> args)
+        throws IOException, InterruptedException {
+        if (portOpen(port)) {
+            throw new IllegalStateException(module + " 的端口 " + port + " 已被占用");
+        }
+        File target = new File(root, "distributed-security-" + module + "/target");
+        File classpathFile = new File(target, "classpath.txt");
+        if (!classpathFile.isFile()) {
+            throw new IllegalStateException("找不到 " + classpathFile + "，先执行 scripts/loadtest.sh 打包并生成classpath");
+        }
+        List<String> classpath = new ArrayList<>();
+        classpath.add(new File(target, "distributed-security-" + module + "-" + VERSION + ".jar").getAbsolutePath());
+        classpath.add(new String(Files.readAllBytes(classpathFile.toPath()), StandardCharsets.UTF_8).trim());
+        classpath.addAll(extraClasspath);
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getAbsolutePath());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator, classpath));
+        command.add(mainClass);
+        command.addAll(args);
+
+        File workDir = new File(output, module);
+        workDir.mkdirs();
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.environment().put(IDENTITY_KEY_ENV, identitySigningKey);
+        Process process = builder
+            .directory(workDir)
+            .redirectErrorStream(true)
+            .redirectOutput(new File(output, module + ".log"))
+            .start();
+        processes.add(process);
+
+        long deadline = System.currentTimeMillis() + startupTimeoutMillis;
+        while (!portOpen(port)) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(module + " 启动失败，见 " + new File(output, module + ".log"));
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException(module + " 启动超时，见 " + new File(output, module + ".log"));
+            }
+            TimeUnit.MILLISECONDS.sleep(200);
+        }
+        System.out.println(module + " 已启动，端口 " + port);
+    }
+
+    /**
+     * 逆序停止，先请求正常退出，eureka客户端会注销
+     */
+    @Override
+    public synchronized void close() {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            Process process = processes.get(i);
+            process.destroy();
+            try {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+
+    private static boolean portOpen(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String codeSource(Class<?> type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI()).getAbsolutePath();
+        } catch (Exception e) {
+            throw new IllegalStateException("无法定位 " + type.getName() + " 所在的jar", e);
+        }
+    }
+}
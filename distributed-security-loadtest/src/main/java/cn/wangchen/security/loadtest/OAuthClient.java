@@ -0,0 +1,269 @@
+package cn.wangchen.security.loadtest;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测用的客户端，只依赖 HttpURLConnection，连接由JDK的keep-alive复用
+ *  密码模式、刷新令牌经过网关，与实际的调用链路一致
+ *  授权码模式直接请求uaa：网关设置了 zuul.sensitiveHeaders = *，会去掉 Cookie 和 Set-Cookie，登录后的会话无法经过网关
+ *
+ * 响应码不符合预期时抛出 IllegalStateException，由压测模型计为失败
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:20
+ */
+public class OAuthClient {
+
+    private final String gatewayUrl;
+
+    private final String uaaUrl;
+
+    private final String clientId;
+
+    private final String clientSecret;
+
+    private final String redirectUri;
+
+    private final String username;
+
+    private final String password;
+
+    public OAuthClient(String gatewayUrl, String uaaUrl, String clientId, String clientSecret, String redirectUri,
+                       String username, String password) {
+        this.gatewayUrl = gatewayUrl;
+        this.uaaUrl = uaaUrl;
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+        this.redirectUri = redirectUri;
+        this.username = username;
+        this.password = password;
+    }
+
+    /**
+     * 密码模式申请令牌
+     */
+    public Tokens password() {
+        Map<String, String> form = clientForm("password");
+        form.put("username", username);
+        form.put("password", password);
+        return token(gatewayUrl + "/uaa/oauth/token", form);
+    }
+
+    /**
+     * 用刷新令牌换新的令牌
+     */
+    public Tokens refresh(String refreshToken) {
+        Map<String, String> form = clientForm("refresh_token");
+        form.put("refresh_token", refreshToken);
+        return token(gatewayUrl + "/uaa/oauth/token", form);
+    }
+
+    /**
+     * 授权码模式的完整流程：表单登录、申请授权码、用授权码换令牌
+     * 客户端设置了自动授权，申请授权码时直接重定向到 redirect_uri
+     */
+    public Tokens authorizationCode() {
+        Map<String, String> login = new LinkedHashMap<>();
+        login.put("username", username);
+        login.put("password", password);
+        Response loginResponse = send("POST", uaaUrl + "/login", null, null, encode(login));
+        if (loginResponse.status != HttpURLConnection.HTTP_MOVED_TEMP || loginResponse.location().contains("error")) {
+            throw new IllegalStateException("登录失败：" + loginResponse.status + " " + loginResponse.location());
+        }
+
+        String authorize = uaaUrl + "/oauth/authorize?client_id=" + urlEncode(clientId) + "&response_type=code&scope=all&redirect_uri="
+            + urlEncode(redirectUri);
+        Response authorizeResponse = send("GET", authorize, null, loginResponse.cookies(), null);
+        String code = queryParameter(authorizeResponse.location(), "code");
+        if (authorizeResponse.status != HttpURLConnection.HTTP_MOVED_TEMP || code == null) {
+            throw new IllegalStateException("申请授权码失败：" + authorizeResponse.status + " " + authorizeResponse.location());
+        }
+
+        Map<String, String> form = clientForm("authorization_code");
+        form.put("code", code);
+        form.put("redirect_uri", redirectUri);
+        return token(uaaUrl + "/oauth/token", form);
+    }
+
+    /**
+     * 经过网关带令牌访问 /order/r1
+     */
+    public int orderR1(String accessToken) {
+        Response response = send("GET", gatewayUrl + "/order/r1", "Bearer " + accessToken, null, null);
+        if (response.status != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException("/order/r1 返回 " + response.status);
+        }
+        return response.body.length;
+    }
+
+    private Map<String, String> clientForm(String grantType) {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("client_id", clientId);
+        form.put("client_secret", clientSecret);
+        form.put("grant_type", grantType);
+        return form;
+    }
+
+    private Tokens token(String url, Map<String, String> form) {
+        Response response = send("POST", url, null, null, encode(form));
+        if (response.status != HttpURLConnection.HTTP_OK) {
+            throw new IllegalStateException("申请令牌失败：" + response.status + " " + new String(response.body, StandardCharsets.UTF_8));
+        }
+        JSONObject json = JSON.parseObject(new String(response.body, StandardCharsets.UTF_8));
+        return new Tokens(json.getString("access_token"), json.getString("refresh_token"));
+    }
+
+    private static Response send(String method, String url, String authorization, String cookie, String form) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod(method);
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(2000);
+            connection.setReadTimeout(30000);
+            if (authorization != null) {
+                connection.setRequestProperty("Authorization", authorization);
+            }
+            if (cookie != null) {
+                connection.setRequestProperty("Cookie", cookie);
+            }
+            if (form != null) {
+                byte[] body = form.getBytes(StandardCharsets.UTF_8);
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            //读完响应体，连接才能放回keep-alive缓存
+            byte[] body;
+            try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                body = readFully(in);
+            }
+            return new Response(status, connection.getHeaderFields(), body);
+        } catch (IOException e) {
+            throw new IllegalStateException(method + " " + url + " 失败：" + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        if (in == null) {
+            return new byte[0];
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static String encode(Map<String, String> form) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : form.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append(urlEncode(entry.getKey())).append('=').append(urlEncode(entry.getValue()));
+        }
+        return builder.toString();
+    }
+
+    private static String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String queryParameter(String url, String name) {
+        int query = url.indexOf('?');
+        if (query < 0) {
+            return null;
+        }
+        for (String pair : url.substring(query + 1).split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 令牌端点返回的访问令牌和刷新令牌
+     */
+    public static class Tokens {
+
+        private final String accessToken;
+
+        private final String refreshToken;
+
+        public Tokens(String accessToken, String refreshToken) {
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getAccessToken() {
+            return accessToken;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    private static class Response {
+
+        private final int status;
+
+        private final Map<String, List<String>> headers;
+
+        private final byte[] body;
+
+        private Response(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        private String location() {
+            List<String> values = headers.get("Location");
+            return values == null || values.isEmpty() ? "" : values.get(0);
+        }
+
+        /**
+         * 把 Set-Cookie 中的 name=value 拼成请求的 Cookie 头
+         */
+        private String cookies() {
+            List<String> values = headers.get("Set-Cookie");
+            if (values == null) {
+                return null;
+            }
+            List<String> pairs = new ArrayList<>();
+            for (String value : values) {
+                int end = value.indexOf(';');
+                pairs.add(end < 0 ? value : value.substring(0, end));
+            }
+            return String.join("; ", pairs);
+        }
+    }
+}
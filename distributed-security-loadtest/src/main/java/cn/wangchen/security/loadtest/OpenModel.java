@@ -0,0 +1,74 @@
+package cn.wangchen.security.loadtest;
+
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 开放模型：按 rate 次/秒 的固定间隔发起操作，由 threads 个线程执行
+ *  服务变慢时操作在队列中等待，等待的时间也计入延迟，与真实客户端看到的一致
+ *  线程数需要足够大，否则客户端自己会成为瓶颈
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:55
+ */
+public class OpenModel implements LoadModel {
+
+    private final double rate;
+
+    private final int threads;
+
+    public OpenModel(double rate, int threads) {
+        this.rate = rate;
+        this.threads = threads;
+    }
+
+    @Override
+    public String getId() {
+        return "open";
+    }
+
+    @Override
+    public void run(Runnable operation, Recorder recorder, AtomicLong errors, long durationNanos) throws InterruptedException {
+        AtomicInteger index = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-open-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + i * interval;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(() -> {
+                    try {
+                        operation.run();
+                        LoadModel.record(recorder, System.nanoTime() - intended);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package cn.wangchen.security.loadtest;
+
+/**
+ * 压测场景，每次调用 {@link #execute} 计为一次操作，记录一个延迟
+ *  password：密码模式申请令牌
+ *  authorization-code：登录、申请授权码、换取令牌，三次请求计为一次操作
+ *  refresh：用压测开始前申请的刷新令牌换新令牌，jwt的刷新令牌可以重复使用
+ *  order-r1：用压测开始前申请的访问令牌经过网关访问 /order/r1
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:35
+ */
+public enum Scenario {
+
+    PASSWORD("password") {
+        @Override
+        public void execute(OAuthClient client, OAuthClient.Tokens tokens) {
+            client.password();
+        }
+    },
+
+    AUTHORIZATION_CODE("authorization-code") {
+        @Override
+        public void execute(OAuthClient client, OAuthClient.Tokens tokens) {
+            client.authorizationCode();
+        }
+    },
+
+    REFRESH("refresh") {
+        @Override
+        public void execute(OAuthClient client, OAuthClient.Tokens tokens) {
+            client.refresh(tokens.getRefreshToken());
+        }
+    },
+
+    ORDER_R1("order-r1") {
+        @Override
+        public void execute(OAuthClient client, OAuthClient.Tokens tokens) {
+            client.orderR1(tokens.getAccessToken());
+        }
+    };
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * 执行一次操作，失败时抛出异常
+     * @param tokens 压测开始前用密码模式申请的令牌
+     */
+    public abstract void execute(OAuthClient client, OAuthClient.Tokens tokens);
+
+    public static Scenario of(String id) {
+        for (Scenario scenario : values()) {
+            if (scenario.id.equals(id)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("未知的压测场景：" + id);
+    }
+}
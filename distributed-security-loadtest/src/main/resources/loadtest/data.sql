@@ -0,0 +1,13 @@
+-- 压测使用的客户端，密码为明文，与uaa的 NoOpPasswordEncoder 对应
+-- 自动授权，授权码模式不需要用户确认
+
+insert into oauth_client_details (client_id, resource_ids, client_secret, scope, authorized_grant_types,
+    web_server_redirect_uri, authorities, access_token_validity, refresh_token_validity, additional_information, autoapprove)
+values ('c1', 'order,gateway', 'secret', 'all', 'authorization_code,password,client_credentials,implicit,refresh_token',
+    'http://www.baidu.com', 'ROLE_ADMIN', 7200, 259200, null, 'true');
+
+-- 网关和 order-service 拉取令牌吊销列表使用的客户端，秘钥与 LocalServices 传入的 security.revocation.client-secret 一致
+insert into oauth_client_details (client_id, resource_ids, client_secret, scope, authorized_grant_types,
+    web_server_redirect_uri, authorities, access_token_validity, refresh_token_validity, additional_information, autoapprove)
+values ('revocation-sync', null, 'revocation-secret', 'revocation', 'client_credentials',
+    null, 'ROLE_REVOCATION_SYNC', 7200, null, null, 'false');
@@ -0,0 +1,47 @@
+-- 压测用的内存数据库，由uaa在启动时执行，表结构与 MySQL 中的一致
+
+create table oauth_client_details (
+    client_id VARCHAR(256) PRIMARY KEY,
+    resource_ids VARCHAR(256),
+    client_secret VARCHAR(256),
+    scope VARCHAR(256),
+    authorized_grant_types VARCHAR(256),
+    web_server_redirect_uri VARCHAR(256),
+    authorities VARCHAR(256),
+    access_token_validity INTEGER,
+    refresh_token_validity INTEGER,
+    additional_information VARCHAR(4096),
+    autoapprove VARCHAR(256)
+);
+
+create table oauth_code (
+    code VARCHAR(256),
+    authentication BLOB
+);
+
+create table oauth_revoked_token (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(64) NOT NULL,
+    expires_at BIGINT NOT NULL
+);
+create unique index uk_jti on oauth_revoked_token (jti);
+create index idx_expires_at on oauth_revoked_token (expires_at);
+
+create table uaa_session (
+    primary_id CHAR(36) NOT NULL PRIMARY KEY,
+    session_id CHAR(36) NOT NULL,
+    version BIGINT NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL
+);
+create unique index uk_session_id on uaa_session (session_id);
+create index idx_expiry_time on uaa_session (expiry_time);
+
+create table uaa_session_attributes (
+    primary_id CHAR(36) NOT NULL,
+    attribute_name VARCHAR(200) NOT NULL,
+    attribute_bytes BLOB NOT NULL,
+    PRIMARY KEY (primary_id, attribute_name)
+);
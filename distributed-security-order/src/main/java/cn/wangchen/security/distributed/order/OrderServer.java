@@ -1,8 +1,12 @@
 package cn.wangchen.security.distributed.order;
 
+import cn.wangchen.security.audit.AuditConfig;
+import cn.wangchen.security.common.correlation.CorrelationIdConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author wangchen
@@ -11,6 +15,8 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
+@Import({AuditConfig.class, CorrelationIdConfig.class})
 public class OrderServer {
     public static void main(String[] args) {
         SpringApplication.run(OrderServer.class, args);
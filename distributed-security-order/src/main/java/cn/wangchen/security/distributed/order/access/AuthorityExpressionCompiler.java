@@ -0,0 +1,216 @@
+package cn.wangchen.security.distributed.order.access;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * 把只依赖权限的 @PreAuthorize 表达式编译成直接判断权限集合的谓词，避免每次调用都执行SpEL
+ *
+ * 支持：hasAuthority、hasAnyAuthority、hasRole、hasAnyRole、permitAll、denyAll，
+ * 以及 and、or、not、! 和括号组合
+ * 其他表达式（引用参数、principal、isAuthenticated 等）返回 null，仍由SpEL执行
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 15:20
+ */
+public class AuthorityExpressionCompiler {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * 编译表达式
+     * @param expression @PreAuthorize 中的表达式
+     * @return 不支持的表达式返回 null
+     */
+    public Predicate<Set<String>> compile(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        try {
+            Parser parser = new Parser(expression);
+            Predicate<Set<String>> predicate = parser.parseOr();
+            parser.skipWhitespace();
+            return parser.atEnd() ? predicate : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 递归下降解析，优先级 not > and > or，与SpEL一致
+     */
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Predicate<Set<String>> parseOr() {
+            Predicate<Set<String>> left = parseAnd();
+            while (consumeKeyword("or") || consume("||")) {
+                left = left.or(parseAnd());
+            }
+            return left;
+        }
+
+        Predicate<Set<String>> parseAnd() {
+            Predicate<Set<String>> left = parseUnary();
+            while (consumeKeyword("and") || consume("&&")) {
+                left = left.and(parseUnary());
+            }
+            return left;
+        }
+
+        Predicate<Set<String>> parseUnary() {
+            if (consumeKeyword("not") || consume("!")) {
+                return parseUnary().negate();
+            }
+            if (consume("(")) {
+                Predicate<Set<String>> inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            return parseCall();
+        }
+
+        Predicate<Set<String>> parseCall() {
+            String name = identifier();
+            if ("permitAll".equals(name) || "denyAll".equals(name)) {
+                //permitAll、denyAll 也可写成方法调用
+                if (consume("(")) {
+                    expect(")");
+                }
+                final boolean result = "permitAll".equals(name);
+                return authorities -> result;
+            }
+            expect("(");
+            List<String> args = new ArrayList<>();
+            if (!consume(")")) {
+                do {
+                    args.add(stringLiteral());
+                } while (consume(","));
+                expect(")");
+            }
+            switch (name) {
+                case "hasAuthority":
+                    requireSingle(args);
+                    return containsAny(args, false);
+                case "hasAnyAuthority":
+                    return containsAny(args, false);
+                case "hasRole":
+                    requireSingle(args);
+                    return containsAny(args, true);
+                case "hasAnyRole":
+                    return containsAny(args, true);
+                default:
+                    throw new IllegalArgumentException("不支持的方法: " + name);
+            }
+        }
+
+        private static Predicate<Set<String>> containsAny(List<String> args, boolean role) {
+            final String[] required = new String[args.size()];
+            for (int i = 0; i < required.length; i++) {
+                String arg = args.get(i);
+                required[i] = role && !arg.startsWith(ROLE_PREFIX) ? ROLE_PREFIX + arg : arg;
+            }
+            if (required.length == 1) {
+                final String single = required[0];
+                return authorities -> authorities.contains(single);
+            }
+            return authorities -> {
+                for (String authority : required) {
+                    if (authorities.contains(authority)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        private static void requireSingle(List<String> args) {
+            if (args.size() != 1) {
+                throw new IllegalArgumentException("参数个数不正确");
+            }
+        }
+
+        private String identifier() {
+            skipWhitespace();
+            int start = position;
+            while (position < text.length() && Character.isJavaIdentifierPart(text.charAt(position))) {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException("缺少标识符: " + position);
+            }
+            return text.substring(start, position);
+        }
+
+        private String stringLiteral() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("缺少字符串");
+            }
+            char quote = text.charAt(position);
+            if (quote != '\'' && quote != '"') {
+                throw new IllegalArgumentException("只支持字符串参数");
+            }
+            StringBuilder value = new StringBuilder();
+            position++;
+            while (position < text.length()) {
+                char c = text.charAt(position++);
+                if (c == quote) {
+                    //SpEL中连续两个引号表示引号本身
+                    if (position < text.length() && text.charAt(position) == quote) {
+                        value.append(quote);
+                        position++;
+                        continue;
+                    }
+                    return value.toString();
+                }
+                value.append(c);
+            }
+            throw new IllegalArgumentException("字符串未结束");
+        }
+
+        private boolean consumeKeyword(String keyword) {
+            skipWhitespace();
+            int end = position + keyword.length();
+            if (end <= text.length() && text.regionMatches(true, position, keyword, 0, keyword.length())
+                && (end == text.length() || !Character.isJavaIdentifierPart(text.charAt(end)))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean consume(String token) {
+            skipWhitespace();
+            if (text.startsWith(token, position)) {
+                position += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String token) {
+            if (!consume(token)) {
+                throw new IllegalArgumentException("缺少 " + token + ": " + position);
+            }
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean atEnd() {
+            return position == text.length();
+        }
+    }
+}
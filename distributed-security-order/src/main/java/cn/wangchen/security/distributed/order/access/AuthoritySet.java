@@ -0,0 +1,71 @@
+package cn.wangchen.security.distributed.order.access;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 排序去重后的权限集合，作为 @PreAuthorize 判定缓存的key
+ *  hashCode 在创建时计算一次，equals 比较完整的权限列表，不同的权限集合不会共用判定结果
+ *  经网关转发的请求，每个身份信封只创建一次，见 TokenAuthenticationFilter
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 15:48
+ */
+public final class AuthoritySet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] authorities;
+
+    private final Set<String> set;
+
+    private final int hash;
+
+    private AuthoritySet(String[] authorities) {
+        this.authorities = authorities;
+        this.set = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(authorities)));
+        this.hash = Arrays.hashCode(authorities);
+    }
+
+    public static AuthoritySet of(Collection<? extends GrantedAuthority> authorities) {
+        TreeSet<String> sorted = new TreeSet<>();
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() != null) {
+                sorted.add(authority.getAuthority());
+            }
+        }
+        return new AuthoritySet(sorted.toArray(new String[0]));
+    }
+
+    /**
+     * 供编译后的谓词判断
+     */
+    public Set<String> asSet() {
+        return set;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuthoritySet)) {
+            return false;
+        }
+        AuthoritySet other = (AuthoritySet) o;
+        return hash == other.hash && Arrays.equals(authorities, other.authorities);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
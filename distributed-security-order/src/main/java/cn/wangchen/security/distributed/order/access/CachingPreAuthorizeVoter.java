@@ -0,0 +1,191 @@
+package cn.wangchen.security.distributed.order.access;
+
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.audit.AuditRecord;
+import cn.wangchen.security.common.correlation.CorrelationId;
+import cn.wangchen.security.distributed.order.filter.IdentityAuthenticationToken;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.MDC;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.prepost.PreFilter;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * 方法上 @PreAuthorize 的投票器，替代每次执行SpEL
+ *  1> 只依赖权限的表达式在启动时编译成谓词，见 {@link AuthorityExpressionCompiler}
+ *  2> 判定结果按 方法 + 权限集合 {@link AuthoritySet} 缓存，命中时比较完整的权限集合，不会因哈希碰撞误判
+ *     经网关转发的请求，权限集合随身份信封只创建一次，重复调用只做一次哈希查找；
+ *     直接携带令牌的请求每次创建权限集合
+ *  3> 每个方法的判定缓存超过上限时淘汰一个条目
+ * 不能编译的表达式和 @PreFilter 交给原有的 {@link PreInvocationAuthorizationAdviceVoter}
+ * 拒绝访问时写一条审计记录
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 16:05
+ */
+public class CachingPreAuthorizeVoter implements AccessDecisionVoter<MethodInvocation> {
+
+    private final PreInvocationAuthorizationAdviceVoter delegate;
+
+    private final AuthorityExpressionCompiler compiler = new AuthorityExpressionCompiler();
+
+    private final Map<Method, CompiledRule> rules = new ConcurrentHashMap<>();
+
+    private final int maxDecisionsPerMethod;
+
+    private AuditLog auditLog;
+
+    public CachingPreAuthorizeVoter(PreInvocationAuthorizationAdviceVoter delegate, int maxDecisionsPerMethod) {
+        this.delegate = delegate;
+        this.maxDecisionsPerMethod = maxDecisionsPerMethod;
+    }
+
+    public void setAuditLog(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public boolean supports(ConfigAttribute attribute) {
+        return delegate.supports(attribute);
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public int vote(Authentication authentication, MethodInvocation method, Collection<ConfigAttribute> attributes) {
+        if (!hasPreInvocationAttribute(attributes)) {
+            return ACCESS_ABSTAIN;
+        }
+        Class<?> targetClass = method.getThis() != null ? AopUtils.getTargetClass(method.getThis()) : method.getMethod().getDeclaringClass();
+        CompiledRule rule = rules.computeIfAbsent(method.getMethod(), m -> compile(m, targetClass));
+        int result;
+        if (!rule.isSupported()) {
+            result = delegate.vote(authentication, method, attributes);
+        } else {
+            result = rule.decide(authoritySet(authentication), maxDecisionsPerMethod) ? ACCESS_GRANTED : ACCESS_DENIED;
+        }
+        if (result == ACCESS_DENIED) {
+            audit(authentication, rule);
+        }
+        return result;
+    }
+
+    /**
+     * 启动时预先编译
+     * @param method 方法
+     * @param targetClass 方法所在的类
+     */
+    public void precompile(Method method, Class<?> targetClass) {
+        rules.computeIfAbsent(method, m -> compile(m, targetClass));
+    }
+
+    /**
+     * 不能编译的方法，谓词为null，交给SpEL执行
+     */
+    private CompiledRule compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        String resource = targetClass.getSimpleName() + "." + method.getName();
+        if (findAnnotation(specificMethod, targetClass, PreFilter.class) != null) {
+            return new CompiledRule(null, resource);
+        }
+        PreAuthorize preAuthorize = findAnnotation(specificMethod, targetClass, PreAuthorize.class);
+        if (preAuthorize == null) {
+            return new CompiledRule(null, resource);
+        }
+        return new CompiledRule(compiler.compile(preAuthorize.value()), resource);
+    }
+
+    private static AuthoritySet authoritySet(Authentication authentication) {
+        if (authentication instanceof IdentityAuthenticationToken) {
+            return ((IdentityAuthenticationToken) authentication).getAuthoritySet();
+        }
+        return AuthoritySet.of(authentication.getAuthorities());
+    }
+
+    private void audit(Authentication authentication, CompiledRule rule) {
+        if (auditLog == null) {
+            return;
+        }
+        String clientId = authentication instanceof OAuth2Authentication
+            ? ((OAuth2Authentication) authentication).getOAuth2Request().getClientId() : null;
+        auditLog.record(AuditRecord.ACCESS_DENIED, false, authentication.getAuthorities().size(),
+            MDC.get(CorrelationId.MDC_KEY), authentication.getName(), clientId, rule.resource);
+    }
+
+    /**
+     * 与 PrePostAnnotationSecurityMetadataSource 的查找顺序一致：先方法，后类
+     */
+    private static <A extends Annotation> A findAnnotation(Method method, Class<?> targetClass, Class<A> annotationType) {
+        A annotation = AnnotationUtils.findAnnotation(method, annotationType);
+        if (annotation != null) {
+            return annotation;
+        }
+        return AnnotationUtils.findAnnotation(targetClass, annotationType);
+    }
+
+    private static boolean hasPreInvocationAttribute(Collection<ConfigAttribute> attributes) {
+        for (ConfigAttribute attribute : attributes) {
+            if (attribute instanceof PreInvocationAttribute) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 编译后的规则和该方法的判定缓存
+     */
+    private static final class CompiledRule {
+        private final Predicate<Set<String>> predicate;
+        private final Map<AuthoritySet, Boolean> decisions = new ConcurrentHashMap<>();
+        /**
+         * 审计记录中的资源名：类名.方法名
+         */
+        private final String resource;
+
+        CompiledRule(Predicate<Set<String>> predicate, String resource) {
+            this.predicate = predicate;
+            this.resource = resource;
+        }
+
+        boolean isSupported() {
+            return predicate != null;
+        }
+
+        boolean decide(AuthoritySet authorities, int maxDecisions) {
+            Boolean decision = decisions.get(authorities);
+            if (decision != null) {
+                return decision;
+            }
+            decision = predicate.test(authorities.asSet());
+            if (decisions.size() >= maxDecisions) {
+                Iterator<AuthoritySet> keys = decisions.keySet().iterator();
+                if (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                }
+            }
+            decisions.put(authorities, decision);
+            return decision;
+        }
+    }}
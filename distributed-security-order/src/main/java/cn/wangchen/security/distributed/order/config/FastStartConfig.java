@@ -0,0 +1,44 @@
+package cn.wangchen.security.distributed.order.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 快速启动模式，扩容时使用：--spring.profiles.active=faststart
+ *  非热点路径的bean懒加载，见 {@link LazyInitBeanFactoryPostProcessor}
+ *  以 STARTING 状态注册到eureka，令牌校验路径预热后再改为 UP，见 {@link JwtWarmUpRunner}
+ *  配合 scripts/appcds.sh 生成的类数据共享归档，减少类加载和校验的时间
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 23:50
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+    /**
+     * BeanFactoryPostProcessor 需要在其他bean之前创建，使用静态方法，配置从 Environment 中直接读取
+     * @return
+     */
+    @Bean
+    public static LazyInitBeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor(Environment environment) {
+        Set<String> eagerBeans = new HashSet<>(Arrays.asList(
+            StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(environment.getProperty("faststart.eager-beans", "")))));
+        eagerBeans.add("fastStartConfig");
+        eagerBeans.add("jwtWarmUpRunner");
+        return new LazyInitBeanFactoryPostProcessor(eagerBeans);
+    }
+
+    @Bean
+    public JwtWarmUpRunner jwtWarmUpRunner() {
+        return new JwtWarmUpRunner();
+    }
+}
@@ -0,0 +1,156 @@
+package cn.wangchen.security.distributed.order.config;
+
+import cn.wangchen.security.distributed.order.util.IdentityTokenCodec;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.common.DefaultOAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 快速启动模式下，在注册为 UP 之前预热令牌校验的路径
+ *  用本地的签名秘钥签发一个令牌，反复校验，让jwt解析、验签、吊销检查、身份信封编解码被JIT编译
+ *  再用这个令牌向自己发几次请求，提前创建 DispatcherServlet、方法级别的鉴权等懒加载的bean
+ *  完成后把eureka中的状态从 STARTING 改为 UP，网关这时才会把请求转过来
+ *
+ * faststart.exit-after-warmup=true 时预热完成后直接退出，用于生成 AppCDS 的类列表
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 23:45
+ */
+public class JwtWarmUpRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtWarmUpRunner.class);
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private JwtAccessTokenConverter accessTokenConverter;
+
+    @Autowired
+    private IdentityTokenCodec identityTokenCodec;
+
+    @Autowired
+    private ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Environment environment;
+
+    /**
+     * 直接调用校验方法的次数，需要超过JIT的编译阈值
+     */
+    @Value("${faststart.warmup.iterations:20000}")
+    private int iterations;
+
+    /**
+     * 向自己发送的请求数
+     */
+    @Value("${faststart.warmup.requests:50}")
+    private int requests;
+
+    @Value("${faststart.warmup.path:/r1}")
+    private String path;
+
+    @Value("${faststart.exit-after-warmup:false}")
+    private boolean exitAfterWarmUp;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        List<String> authorities = Arrays.asList("p1", "p2");
+        String token = issueToken(authorities);
+        long expiresAt = System.currentTimeMillis() / 1000L + 60;
+        for (int i = 0; i < iterations; i++) {
+            tokenStore.readAuthentication(token);
+            identityTokenCodec.decode(identityTokenCodec.encode("warmup", authorities, expiresAt));
+        }
+        int succeeded = selfRequests(token);
+        logger.info("令牌校验预热完成，{} 次校验，{}/{} 次请求成功，耗时 {} ms", iterations, succeeded, requests,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (exitAfterWarmUp) {
+            System.exit(SpringApplication.exit(context));
+        }
+        ApplicationInfoManager manager = applicationInfoManager.getIfAvailable();
+        if (manager != null) {
+            manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP);
+        }
+    }
+
+    /**
+     * 与密码模式签发的令牌结构一致，只在本进程内使用
+     */
+    private String issueToken(List<String> authorities) {
+        List<GrantedAuthority> grantedAuthorities = AuthorityUtils.createAuthorityList(authorities.toArray(new String[0]));
+        OAuth2Request request = new OAuth2Request(Collections.emptyMap(), "warmup", grantedAuthorities, true,
+            Collections.singleton("all"), new HashSet<>(Collections.singletonList(ResourceConfigServer.RESOURCE_ID)),
+            null, null, null);
+        OAuth2Authentication authentication = new OAuth2Authentication(request,
+            new UsernamePasswordAuthenticationToken("warmup", null, grantedAuthorities));
+        DefaultOAuth2AccessToken accessToken = new DefaultOAuth2AccessToken(UUID.randomUUID().toString());
+        accessToken.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)));
+        accessToken.setScope(Collections.singleton("all"));
+        return accessTokenConverter.enhance(accessToken, authentication).getValue();
+    }
+
+    private int selfRequests(String token) {
+        String port = environment.getProperty("local.server.port");
+        if (port == null || requests <= 0) {
+            return 0;
+        }
+        String url = "http://127.0.0.1:" + port + environment.getProperty("server.servlet.context-path", "") + path;
+        int succeeded = 0;
+        for (int i = 0; i < requests; i++) {
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+                connection.setRequestProperty("Authorization", "Bearer " + token);
+                connection.setConnectTimeout(1000);
+                connection.setReadTimeout(5000);
+                if (connection.getResponseCode() == HttpURLConnection.HTTP_OK) {
+                    succeeded++;
+                }
+                try (InputStream body = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                    while (body != null && body.read() >= 0) {
+                        continue;
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("预热请求失败：{}", url, e);
+                return succeeded;
+            }
+        }
+        return succeeded;
+    }
+}
@@ -0,0 +1,74 @@
+package cn.wangchen.security.distributed.order.config;
+
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.distributed.order.access.CachingPreAuthorizeVoter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.access.vote.AuthenticatedVoter;
+import org.springframework.security.access.vote.RoleVoter;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * spring security 提供的基于方法级别的拦截验证
+ * 其中 @PreAuthorize 使用编译后的谓词和判定缓存，见 {@link CachingPreAuthorizeVoter}
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 16:40
+ */
+@Configuration
+@EnableGlobalMethodSecurity(securedEnabled = true, prePostEnabled = true)
+public class MethodSecurityConfig extends GlobalMethodSecurityConfiguration {
+
+    @Value("${security.access.decision-cache-size:10000}")
+    private int decisionCacheSize;
+
+    private CachingPreAuthorizeVoter preAuthorizeVoter;
+
+    /**
+     * 与默认的投票器一致，只是 @PreAuthorize 的投票器换成带缓存的
+     * @return
+     */
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(getExpressionHandler());
+        preAuthorizeVoter = new CachingPreAuthorizeVoter(new PreInvocationAuthorizationAdviceVoter(expressionAdvice), decisionCacheSize);
+
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        decisionVoters.add(preAuthorizeVoter);
+        decisionVoters.add(new RoleVoter());
+        decisionVoters.add(new AuthenticatedVoter());
+        return new AffirmativeBased(decisionVoters);
+    }
+
+    /**
+     * 启动时编译所有接口上的 @PreAuthorize 表达式，并设置审计日志
+     * 方法拦截器创建得很早，在这里再取审计日志，避免提前创建 MeterRegistry
+     * @param event
+     */
+    @EventListener
+    public void precompile(ContextRefreshedEvent event) {
+        if (preAuthorizeVoter == null) {
+            return;
+        }
+        preAuthorizeVoter.setAuditLog(event.getApplicationContext().getBean(AuditLog.class));
+        for (RequestMappingHandlerMapping mapping : event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (HandlerMethod handlerMethod : mapping.getHandlerMethods().values()) {
+                preAuthorizeVoter.precompile(handlerMethod.getMethod(), handlerMethod.getBeanType());
+            }
+        }
+    }
+}
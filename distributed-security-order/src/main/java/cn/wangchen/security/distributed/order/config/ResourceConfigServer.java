@@ -1,6 +1,10 @@
 package cn.wangchen.security.distributed.order.config;
 
+import cn.wangchen.security.distributed.order.filter.TokenAuthenticationFilter;
+import cn.wangchen.security.distributed.order.metrics.AuthMetrics;
+import cn.wangchen.security.distributed.order.util.IdentityTokenCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,11 +12,13 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.oauth2.config.annotation.web.configuration.EnableResourceServer;
 import org.springframework.security.oauth2.config.annotation.web.configuration.ResourceServerConfigurerAdapter;
 import org.springframework.security.oauth2.config.annotation.web.configurers.ResourceServerSecurityConfigurer;
+import org.springframework.security.oauth2.provider.authentication.OAuth2AuthenticationProcessingFilter;
 import org.springframework.security.oauth2.provider.token.RemoteTokenServices;
 import org.springframework.security.oauth2.provider.token.ResourceServerTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 
 /**
+ * 请求带 Bearer 令牌时在本地验证jwt；经网关转发的请求使用网关签名的身份信封，见 {@link TokenAuthenticationFilter}
  * @author wangchen
  * @version 1.0
  * @date 2022/5/21 10:11
@@ -29,6 +35,18 @@ public class ResourceConfigServer extends ResourceServerConfigurerAdapter {
     @Autowired
     TokenStore tokenStore;
 
+    @Autowired
+    IdentityTokenCodec identityTokenCodec;
+
+    @Autowired
+    AuthMetrics authMetrics;
+
+    /**
+     * 缓存的已校验身份信封数
+     */
+    @Value("${security.identity.cache-size:100000}")
+    int identityCacheSize;
+
     /**
      * 远程配置令牌验证服务
      * @return
@@ -65,11 +83,19 @@ public class ResourceConfigServer extends ResourceServerConfigurerAdapter {
             .stateless(true);
     }
 
+    /**
+     * 身份信封的过滤器放在 OAuth2AuthenticationProcessingFilter 之后：
+     *  stateless 模式下没有 Bearer 令牌时，该过滤器会清空之前放入的认证信息
+     * 网关已经校验过 scope，身份信封中没有 scope，签名正确即视为已认证
+     * @param http
+     * @throws Exception
+     */
     @Override
     public void configure(HttpSecurity http) throws Exception {
         http
+            .addFilterAfter(new TokenAuthenticationFilter(identityTokenCodec, authMetrics.tokenFilter(), identityCacheSize), OAuth2AuthenticationProcessingFilter.class)
             .authorizeRequests()
-            .antMatchers("/**").access("#oauth2.hasScope('all')")
+            .antMatchers("/**").access("#oauth2.hasScope('all') or (!#oauth2.isOAuth() and isAuthenticated())")
             .and().csrf().disable()
             .sessionManagement()
             .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
@@ -1,12 +1,18 @@
 package cn.wangchen.security.distributed.order.controller;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author wangchen
  * @version 1.0
@@ -15,12 +21,22 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class OrderController {
 
+    /**
+     * 响应中包含用户名，只允许网关按用户缓存
+     */
+    private static final CacheControl R1_CACHE_CONTROL = CacheControl.maxAge(30, TimeUnit.SECONDS).cachePrivate();
+
+    /**
+     * 带上ETag，请求的 If-None-Match 一致时由spring返回304
+     */
     @GetMapping(value = "/r1")
     @PreAuthorize("hasAnyAuthority('p2')")
-    public String r1(){
+    public ResponseEntity<String> r1(){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getPrincipal().toString();
-        return username + "访问资源1";
+        String body = username + "访问资源1";
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body.getBytes(StandardCharsets.UTF_8)) + "\"";
+        return ResponseEntity.ok().cacheControl(R1_CACHE_CONTROL).eTag(etag).body(body);
     }
 
 }
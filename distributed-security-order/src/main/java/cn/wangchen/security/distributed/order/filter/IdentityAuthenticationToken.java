@@ -0,0 +1,28 @@
+package cn.wangchen.security.distributed.order.filter;
+
+import cn.wangchen.security.distributed.order.access.AuthoritySet;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * 由网关身份信封认证的用户，带上该信封对应的权限集合，判定 @PreAuthorize 时不再重新计算
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 10:20
+ */
+public class IdentityAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private final AuthoritySet authoritySet;
+
+    public IdentityAuthenticationToken(String username, Collection<? extends GrantedAuthority> authorities, AuthoritySet authoritySet) {
+        super(username, null, authorities);
+        this.authoritySet = authoritySet;
+    }
+
+    public AuthoritySet getAuthoritySet() {
+        return authoritySet;
+    }
+}
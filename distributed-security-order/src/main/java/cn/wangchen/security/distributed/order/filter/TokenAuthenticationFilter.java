@@ -1,14 +1,12 @@
 package cn.wangchen.security.distributed.order.filter;
 
-import cn.wangchen.security.distributed.order.util.EncryptUtil;
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONArray;
-import com.alibaba.fastjson.JSONObject;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.AuthorityUtils;
+import cn.wangchen.security.distributed.order.access.AuthoritySet;
+import cn.wangchen.security.distributed.order.util.IdentityTokenCodec;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.servlet.FilterChain;
@@ -16,26 +14,117 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * 解析网关转发的身份信封，校验签名和过期时间后放入security上下文
+ * 签名不正确的信封直接忽略，不再信任网关之外伪造的身份
+ * 请求同时带有 Bearer 令牌时，以令牌验证的结果为准
+ * 在资源服务的过滤器链中注册，见 ResourceConfigServer
+ *
+ * 网关对同一个令牌转发相同的信封，校验通过的信封按header原文缓存，
+ * 再次出现时只检查过期时间，权限集合 {@link AuthoritySet} 也只创建一次
+ * 缓存超过上限时淘汰一个条目，maxEntries 不大于0时不缓存
  * @author wangchen
  * @version 1.0
  * @date 2022/5/22 16:50
  */
 public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private final IdentityTokenCodec identityTokenCodec;
+
+    private final Timer timer;
+
+    private final int maxEntries;
+
+    private final Map<String, VerifiedIdentity> verified = new ConcurrentHashMap<>();
+
+    public TokenAuthenticationFilter(IdentityTokenCodec identityTokenCodec, Timer timer, int maxEntries) {
+        this.identityTokenCodec = identityTokenCodec;
+        this.timer = timer;
+        this.maxEntries = maxEntries;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, FilterChain filterChain) throws ServletException, IOException {
-        String token = httpServletRequest.getHeader("json-token");
-        String json = EncryptUtil.decodeUTF8StringBase64(token);
-        JSONObject jsonObject = JSON.parseObject(json);
-        String username = jsonObject.getString("username");
-        JSONArray authoritiesArr = jsonObject.getJSONArray("authorities");
-        String[] authorities = authoritiesArr.toArray(new String[authoritiesArr.size()]);
-        UsernamePasswordAuthenticationToken authenticationToken =
-            new UsernamePasswordAuthenticationToken(username, null, AuthorityUtils.createAuthorityList(authorities));
-        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
-
-        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        String header = httpServletRequest.getHeader(IdentityTokenCodec.HEADER_NAME);
+        if (header == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(httpServletRequest, httpServletResponse);
+            return;
+        }
+        long start = System.nanoTime();
+        VerifiedIdentity identity = verify(header);
+        if (identity != null) {
+            IdentityAuthenticationToken authenticationToken =
+                new IdentityAuthenticationToken(identity.username, identity.authorities, identity.authoritySet);
+            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpServletRequest));
+
+            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         filterChain.doFilter(httpServletRequest, httpServletResponse);
     }
+
+    /**
+     * @return 签名错误、格式错误或已过期时返回 null
+     */
+    private VerifiedIdentity verify(String header) {
+        long now = System.currentTimeMillis() / 1000L;
+        VerifiedIdentity cached = verified.get(header);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                return cached;
+            }
+            verified.remove(header, cached);
+            return null;
+        }
+        IdentityTokenCodec.Identity identity = identityTokenCodec.decode(header);
+        if (identity == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(identity.getAuthorities().size());
+        for (String authority : identity.getAuthorities()) {
+            authorities.add(new SimpleGrantedAuthority(authority));
+        }
+        VerifiedIdentity result = new VerifiedIdentity(identity.getUsername(), Collections.unmodifiableList(authorities),
+            AuthoritySet.of(authorities), identity.getExpiresAt());
+        if (maxEntries > 0) {
+            if (verified.size() >= maxEntries) {
+                evictOne();
+            }
+            verified.put(header, result);
+        }
+        return result;
+    }
+
+    /**
+     * 淘汰任意一个条目，已过期的条目在再次出现时删除
+     */
+    private void evictOne() {
+        Iterator<String> keys = verified.keySet().iterator();
+        if (keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class VerifiedIdentity {
+        private final String username;
+        private final List<GrantedAuthority> authorities;
+        private final AuthoritySet authoritySet;
+        private final long expiresAt;
+
+        VerifiedIdentity(String username, List<GrantedAuthority> authorities, AuthoritySet authoritySet, long expiresAt) {
+            this.username = username;
+            this.authorities = authorities;
+            this.authoritySet = authoritySet;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
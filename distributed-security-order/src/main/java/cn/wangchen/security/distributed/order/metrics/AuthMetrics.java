@@ -0,0 +1,36 @@
+package cn.wangchen.security.distributed.order.metrics;
+
+import cn.wangchen.security.common.metrics.Timers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资源服务认证链路的耗时统计，通过 /actuator/metrics 查看
+ *  auth.jwt.verify：本地验证jwt令牌
+ *  auth.order.filter：TokenAuthenticationFilter 校验并解析身份信封
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 17:35
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer jwtVerify;
+
+    private final Timer tokenFilter;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.jwtVerify = Timers.percentiles(registry, "auth.jwt.verify", "本地验证jwt令牌");
+        this.tokenFilter = Timers.percentiles(registry, "auth.order.filter", "校验并解析身份信封");
+    }
+
+    public Timer jwtVerify() {
+        return jwtVerify;
+    }
+
+    public Timer tokenFilter() {
+        return tokenFilter;
+    }
+}
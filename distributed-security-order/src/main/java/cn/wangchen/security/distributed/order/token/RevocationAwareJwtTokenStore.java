@@ -0,0 +1,37 @@
+package cn.wangchen.security.distributed.order.token;
+
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.store.JwtTokenStore;
+
+/**
+ * 在本地验证jwt令牌的基础上，检查令牌是否已被吊销
+ * 已吊销的令牌返回 null，由 DefaultTokenServices 抛出 InvalidTokenException
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 11:40
+ */
+public class RevocationAwareJwtTokenStore extends JwtTokenStore {
+
+    private final TokenRevocationList revocationList;
+
+    public RevocationAwareJwtTokenStore(JwtAccessTokenConverter jwtTokenEnhancer, TokenRevocationList revocationList) {
+        super(jwtTokenEnhancer);
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public OAuth2AccessToken readAccessToken(String tokenValue) {
+        OAuth2AccessToken accessToken = super.readAccessToken(tokenValue);
+        if (accessToken == null) {
+            return null;
+        }
+        Object jti = accessToken.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        if (jti != null && revocationList.isRevoked(jti.toString())) {
+            return null;
+        }
+        return accessToken;
+    }
+}
@@ -1,10 +1,14 @@
 package cn.wangchen.security.distributed.uaa;
 
+import cn.wangchen.security.audit.AuditConfig;
+import cn.wangchen.security.common.correlation.CorrelationIdConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.hystrix.EnableHystrix;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * @author wangchen
@@ -15,6 +19,8 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @EnableDiscoveryClient
 @EnableHystrix
 @EnableFeignClients(basePackages = {"cn.wangchen.security.distributed.uaa"})
+@EnableScheduling
+@Import({AuditConfig.class, CorrelationIdConfig.class})
 public class UAAServer {
     public static void main(String[] args) { SpringApplication.run(UAAServer.class, args); }
 }
@@ -1,6 +1,14 @@
 package cn.wangchen.security.distributed.uaa.config;
 
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.distributed.uaa.datasource.ReplicaClientDetailsService;
+import cn.wangchen.security.distributed.uaa.metrics.AuthMetrics;
+import cn.wangchen.security.distributed.uaa.metrics.TimedAuthorizationCodeServices;
+import cn.wangchen.security.distributed.uaa.metrics.TimedClientDetailsService;
+import cn.wangchen.security.distributed.uaa.token.ClientTokenCache;
+import cn.wangchen.security.distributed.uaa.token.ReusingTokenServices;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,7 +26,6 @@ import org.springframework.security.oauth2.provider.code.AuthorizationCodeServic
 import org.springframework.security.oauth2.provider.code.InMemoryAuthorizationCodeServices;
 import org.springframework.security.oauth2.provider.code.JdbcAuthorizationCodeServices;
 import org.springframework.security.oauth2.provider.token.AuthorizationServerTokenServices;
-import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
 import org.springframework.security.oauth2.provider.token.TokenEnhancerChain;
 import org.springframework.security.oauth2.provider.token.TokenStore;
 import org.springframework.security.oauth2.provider.token.store.JwtAccessTokenConverter;
@@ -68,6 +75,12 @@ public class AuthorizationServer extends AuthorizationServerConfigurerAdapter {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    /**
+     * 授权服务各环节的耗时统计
+     */
+    @Autowired
+    private AuthMetrics authMetrics;
+
     /**
      * 默认为 InMemoryClientDetailsService 存入内存
      * 重写为 JdbcClientDetailsService 存入数据库，集群模式
@@ -75,11 +88,22 @@ public class AuthorizationServer extends AuthorizationServerConfigurerAdapter {
     @Autowired
     private ClientDetailsService clientDetailsService;
 
+    /**
+     * 修改客户端信息后，该客户端从主库查询的时间，单位毫秒，需要大于从库的复制延迟
+     */
+    @Value("${uaa.datasource.read-your-writes:5000}")
+    private long readYourWrites;
+
+    /**
+     * 查询走从库，见 {@link ReplicaClientDetailsService}
+     * 同时作为 ClientRegistrationService 注入，通过它修改客户端，之后的查询在 read-your-writes 内走主库
+     */
     @Bean
-    public ClientDetailsService clientDetailsService(DataSource dataSource) {
+    public TimedClientDetailsService clientDetailsService(DataSource dataSource) {
         JdbcClientDetailsService clientDetailsService = new JdbcClientDetailsService(dataSource);
         clientDetailsService.setPasswordEncoder(passwordEncoder);
-        return clientDetailsService;
+        return new TimedClientDetailsService(new ReplicaClientDetailsService(clientDetailsService, readYourWrites),
+            authMetrics.clientLookup());
     }
 
     /**
@@ -123,13 +147,28 @@ public class AuthorizationServer extends AuthorizationServerConfigurerAdapter {
     @Autowired
     private JwtAccessTokenConverter accessTokenConverter;
 
+    /**
+     * 客户端模式令牌的复用缓存
+     */
+    @Autowired
+    private ClientTokenCache clientTokenCache;
+
+    /**
+     * 审计日志
+     */
+    @Autowired
+    private AuditLog auditLog;
+
     /**
      * 令牌服务
+     * 客户端模式复用未过期的令牌，避免每次请求重新签名
+     * 签发、刷新令牌写审计记录
      * @return
      */
     @Bean
     public AuthorizationServerTokenServices tokenService() {
-        DefaultTokenServices service = new DefaultTokenServices();
+        ReusingTokenServices service = new ReusingTokenServices(authMetrics.tokenIssue(), authMetrics.tokenRefresh(), clientTokenCache);
+        service.setAuditLog(auditLog);
         service.setClientDetailsService(clientDetailsService);//客户端注册信息,可以从内存和数据库中读取
         service.setSupportRefreshToken(true);//支持刷新令牌
         service.setTokenStore(tokenStore);//令牌存储策略
@@ -149,13 +188,15 @@ public class AuthorizationServer extends AuthorizationServerConfigurerAdapter {
     /**
      * 授权码服务
      * 用于 "authorization_code" 授权码类型模式
+     * 授权码生成后马上就会被使用，生成和使用都在主库上，不读从库
      * @return
      */
     @Bean
     public AuthorizationCodeServices authorizationCodeServices(DataSource dataSource) {
         //设置授权码模式的授权码如何 存取，暂时采用内存方式
         //return new InMemoryAuthorizationCodeServices();
-        return new JdbcAuthorizationCodeServices(dataSource);
+        return new TimedAuthorizationCodeServices(new JdbcAuthorizationCodeServices(dataSource),
+            authMetrics.codeCreate(), authMetrics.codeConsume());
     }
 
     /**
@@ -0,0 +1,104 @@
+package cn.wangchen.security.distributed.uaa.config;
+
+import cn.wangchen.security.distributed.uaa.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * uaa 的数据源：主库 + 可选的多个从库，见 {@link ReadWriteRoutingDataSource}
+ *  主库使用 spring.datasource.*，连接池参数仍为 spring.datasource.hikari.*
+ *  从库使用 uaa.datasource.replica.urls，用户名、密码、驱动默认与主库相同，每个从库一个只读的连接池
+ *  没有配置从库时所有请求都在主库上执行
+ *
+ *  datasource.replica.healthy：健康的从库数
+ *  datasource.replica.reads：路由到从库的读请求
+ *  datasource.replica.fallbacks：没有健康的从库，改在主库上执行的读请求
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 15:00
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${uaa.datasource.replica.urls:}")
+    private String[] replicaUrls;
+
+    @Value("${uaa.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${uaa.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${uaa.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolSize;
+
+    /**
+     * 从库取连接的超时，单位毫秒，从库在两次健康检查之间宕机时决定读请求多久后改到主库
+     */
+    @Value("${uaa.datasource.replica.connection-timeout:1000}")
+    private long replicaConnectionTimeout;
+
+    /**
+     * 健康检查的超时，单位秒
+     */
+    @Value("${uaa.datasource.replica.health-check-timeout:1}")
+    private int healthCheckTimeout;
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory metricsTrackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("uaa-primary");
+        }
+        primary.setMetricsTrackerFactory(metricsTrackerFactory);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.trim().isEmpty()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("uaa-replica-" + replicas.size());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(replicaConnectionTimeout);
+            replica.setReadOnly(true);
+            //从库不可用时不影响启动，由健康检查排除
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.add(replica);
+        }
+
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, replicas, healthCheckTimeout);
+        Gauge.builder("datasource.replica.healthy", dataSource, ReadWriteRoutingDataSource::getHealthyReplicaCount)
+            .description("健康的从库数").register(meterRegistry);
+        FunctionCounter.builder("datasource.replica.reads", dataSource, ReadWriteRoutingDataSource::getReplicaReads)
+            .description("路由到从库的读请求").register(meterRegistry);
+        FunctionCounter.builder("datasource.replica.fallbacks", dataSource, ReadWriteRoutingDataSource::getPrimaryFallbacks)
+            .description("没有健康的从库，改在主库上执行的读请求").register(meterRegistry);
+        return dataSource;
+    }
+}
@@ -0,0 +1,57 @@
+package cn.wangchen.security.distributed.uaa.config;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * server.http2.enabled=true 时 tomcat 在明文端口上同时接受 HTTP/1.1 和 h2c，
+ * 网关以 prior knowledge 方式直接建立 HTTP/2 连接，见网关的 H2cConfig
+ * spring boot 2.1 只在开启ssl时给连接器添加 Http2Protocol，明文端口在这里添加
+ *
+ * 网关只用少量连接转发所有请求，tomcat 默认每个连接最多 100 个并发流、同时执行 20 个，
+ * 会把网关的并发限制在连接数 * 20，这里调大
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 13:25
+ */
+@Configuration
+@ConditionalOnProperty("server.http2.enabled")
+public class Http2Config {
+
+    /**
+     * 每个连接上允许的并发流
+     */
+    @Value("${http2.max-concurrent-streams:200}")
+    private long maxConcurrentStreams;
+
+    /**
+     * 每个连接上同时执行的流，超过的在连接内排队
+     */
+    @Value("${http2.max-concurrent-stream-execution:200}")
+    private int maxConcurrentStreamExecution;
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2Customizer() {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            Http2Protocol http2 = null;
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol) {
+                    http2 = (Http2Protocol) protocol;
+                }
+            }
+            if (http2 == null) {
+                http2 = new Http2Protocol();
+                connector.addUpgradeProtocol(http2);
+            }
+            http2.setMaxConcurrentStreams(maxConcurrentStreams);
+            http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+        });
+    }
+}
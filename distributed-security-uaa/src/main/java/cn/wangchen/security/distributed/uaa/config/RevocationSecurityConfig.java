@@ -0,0 +1,61 @@
+package cn.wangchen.security.distributed.uaa.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.client.ClientDetailsUserDetailsService;
+
+/**
+ * 吊销列表端点的访问控制
+ *  网关和资源服务以客户端身份（http basic，client_id + client_secret）拉取吊销列表，
+ *  客户端需要 ROLE_REVOCATION_SYNC 权限，即 oauth_client_details.authorities 中包含该值
+ *  在 {@link WebSecurityConfig} 之前匹配，只处理 /revocation/list
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/22 14:10
+ */
+@Configuration
+@Order(1)
+public class RevocationSecurityConfig extends WebSecurityConfigurerAdapter {
+
+    /**
+     * 同步吊销列表的客户端需要的权限
+     */
+    public static final String SYNC_AUTHORITY = "ROLE_REVOCATION_SYNC";
+
+    @Autowired
+    private ClientDetailsService clientDetailsService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    /**
+     * 与令牌端点一样，按客户端注册信息校验 client_id 和 client_secret
+     * @param auth
+     * @throws Exception
+     */
+    @Override
+    protected void configure(AuthenticationManagerBuilder auth) throws Exception {
+        auth.userDetailsService(new ClientDetailsUserDetailsService(clientDetailsService))
+            .passwordEncoder(passwordEncoder);
+    }
+
+    @Override
+    protected void configure(HttpSecurity http) throws Exception {
+        http.requestMatchers().antMatchers("/revocation/list")
+            .and()
+            .csrf().disable()
+            .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            .and()
+            .authorizeRequests().anyRequest().hasAuthority(SYNC_AUTHORITY)
+            .and()
+            .httpBasic();
+    }
+}
@@ -0,0 +1,82 @@
+package cn.wangchen.security.distributed.uaa.config;
+
+import cn.wangchen.security.distributed.uaa.session.InMemorySessionStore;
+import cn.wangchen.security.distributed.uaa.session.JdbcSessionStore;
+import cn.wangchen.security.distributed.uaa.session.NearCachingSessionRepository;
+import cn.wangchen.security.distributed.uaa.session.SessionStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+
+import javax.sql.DataSource;
+
+/**
+ * 登录和 /oauth/authorize 使用的 http 会话保存在共享存储中，多个 uaa 节点不再需要粘性路由
+ *  security.session.store=memory：默认，保存在进程内，只用于单节点，与原来的容器会话一样
+ *  security.session.store=jdbc：保存在数据库中，部署多个 uaa 节点时使用，
+ *                              切换前需要先执行 classpath 中的 schema-session.sql 建表
+ *
+ *  session.near-cache.hits / misses：近端缓存命中、未命中
+ *  session.writes / session.write.batches：写入的会话修改数、批次数
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:30
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    @Value("${security.session.store:memory}")
+    private String store;
+
+    /**
+     * 会话最长不活动时间，单位秒
+     */
+    @Value("${security.session.timeout:1800}")
+    private int timeout;
+
+    @Value("${security.session.near-cache-size:10000}")
+    private int nearCacheSize;
+
+    /**
+     * 只有最后访问时间变化时的写入精度，单位毫秒
+     */
+    @Value("${security.session.access-time-resolution:30000}")
+    private long accessTimeResolution;
+
+    @Value("${security.session.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * 请求等待会话写入的最长时间，单位毫秒
+     */
+    @Value("${security.session.write-timeout:2000}")
+    private long writeTimeout;
+
+    @Bean
+    public SessionStore sessionStore(DataSource dataSource) {
+        if ("memory".equals(store)) {
+            return new InMemorySessionStore();
+        }
+        return new JdbcSessionStore(dataSource);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public NearCachingSessionRepository sessionRepository(SessionStore sessionStore, MeterRegistry meterRegistry) {
+        NearCachingSessionRepository repository = new NearCachingSessionRepository(sessionStore, timeout, nearCacheSize,
+            accessTimeResolution, batchSize, writeTimeout);
+        FunctionCounter.builder("session.near-cache.hits", repository, NearCachingSessionRepository::getHits)
+            .description("会话近端缓存命中").register(meterRegistry);
+        FunctionCounter.builder("session.near-cache.misses", repository, NearCachingSessionRepository::getMisses)
+            .description("会话近端缓存未命中").register(meterRegistry);
+        FunctionCounter.builder("session.writes", repository, NearCachingSessionRepository::getWrites)
+            .description("写入的会话修改").register(meterRegistry);
+        FunctionCounter.builder("session.write.batches", repository, NearCachingSessionRepository::getBatches)
+            .description("会话写入的批次").register(meterRegistry);
+        return repository;
+    }
+}
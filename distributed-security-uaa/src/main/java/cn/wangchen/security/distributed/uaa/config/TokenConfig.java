@@ -1,5 +1,9 @@
 package cn.wangchen.security.distributed.uaa.config;
 
+import cn.wangchen.security.distributed.uaa.token.ClientTokenCache;
+import cn.wangchen.security.distributed.uaa.token.RevokedTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.provider.token.TokenStore;
@@ -17,6 +21,15 @@ public class TokenConfig {
 
     private String SIGNING_KEY = "uaa123";
 
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
+    @Value("${security.token.client-reuse.refresh-margin:300}")
+    private int clientTokenRefreshMargin;
+
+    @Value("${security.token.client-reuse.max-entries:10000}")
+    private int clientTokenMaxEntries;
+
     /**
      * 设置token的加密方式
      *  可以设置对称和非对称加密
@@ -41,4 +54,13 @@ public class TokenConfig {
         //return new InMemoryTokenStore();
         return new JwtTokenStore(accessTokenConverter());
     }
+
+    /**
+     * 客户端模式令牌的复用缓存，剩余有效期不足或已吊销时重新签发
+     * @return
+     */
+    @Bean
+    public ClientTokenCache clientTokenCache() {
+        return new ClientTokenCache(clientTokenRefreshMargin, clientTokenMaxEntries, revokedTokenService::isRevoked);
+    }
 }
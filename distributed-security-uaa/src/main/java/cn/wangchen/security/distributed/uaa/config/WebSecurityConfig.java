@@ -1,6 +1,7 @@
 package cn.wangchen.security.distributed.uaa.config;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,6 +23,12 @@ import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 @Configuration
 public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
 
+    /**
+     * 内存用户的权限，压测时需要 p2 才能访问 /order/r1
+     */
+    @Value("${security.user.authorities:p1}")
+    private String[] authorities;
+
     /**
      * 认证管理器
      * @return
@@ -40,7 +47,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Bean
     public UserDetailsService userDetailsServiceBean() throws Exception {
         InMemoryUserDetailsManager manager = new InMemoryUserDetailsManager();
-        manager.createUser(User.withUsername("wangchen").password("123").authorities("p1").build());
+        manager.createUser(User.withUsername("wangchen").password("123").authorities(authorities).build());
         return manager;
     }
 
@@ -63,6 +70,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         http.csrf().disable().authorizeRequests()
             .antMatchers("/r/r1").hasAnyAuthority("p1")
             .antMatchers("/login*").permitAll()
+            .antMatchers("/revocation/revoke").permitAll() //令牌吊销，凭令牌本身吊销；吊销列表的访问控制见 RevocationSecurityConfig
             .anyRequest().authenticated()
             .and()
             .formLogin();
@@ -0,0 +1,81 @@
+package cn.wangchen.security.distributed.uaa.controller;
+
+import cn.wangchen.security.distributed.uaa.token.ClientTokenCache;
+import cn.wangchen.security.distributed.uaa.token.RevokedTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.common.exceptions.InvalidTokenException;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+import org.springframework.security.oauth2.provider.token.TokenStore;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 令牌吊销端点
+ *
+ *  吊销令牌
+ *  POST /uaa/revocation/revoke?token=xxx
+ *
+ *  增量同步吊销列表，网关和资源服务定时拉取，需要客户端认证，见 {@link cn.wangchen.security.distributed.uaa.config.RevocationSecurityConfig}
+ *  GET /uaa/revocation/list?since=0
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 10:30
+ */
+@RestController
+public class TokenRevocationController {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    @Autowired
+    private TokenStore tokenStore;
+
+    @Autowired
+    private RevokedTokenService revokedTokenService;
+
+    @Autowired
+    private ClientTokenCache clientTokenCache;
+
+    /**
+     * 吊销访问令牌，令牌本身必须是本服务签发且未过期的
+     * @param token 访问令牌
+     * @return
+     */
+    @PostMapping(value = "/revocation/revoke")
+    public ResponseEntity<Void> revoke(@RequestParam("token") String token) {
+        OAuth2AccessToken accessToken;
+        try {
+            accessToken = tokenStore.readAccessToken(token);
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Object jti = accessToken.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        if (jti == null || accessToken.getExpiration() == null || accessToken.isExpired()) {
+            //没有id或已过期的令牌，无需吊销
+            return ResponseEntity.ok().build();
+        }
+        revokedTokenService.revoke(jti.toString(), accessToken.getExpiration().getTime() / 1000L);
+        //客户端模式复用的令牌不再返回
+        clientTokenCache.evict(jti.toString());
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * 增量返回吊销记录
+     * @param since 上次同步到的记录id
+     * @param limit 单次最多返回条数
+     * @return
+     */
+    @GetMapping(value = "/revocation/list")
+    public List<Map<String, Object>> list(@RequestParam(value = "since", defaultValue = "0") long since,
+                                          @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return revokedTokenService.listSince(since, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+}
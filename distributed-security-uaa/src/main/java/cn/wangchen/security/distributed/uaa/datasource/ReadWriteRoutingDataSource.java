@@ -0,0 +1,167 @@
+package cn.wangchen.security.distributed.uaa.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 读写分离的数据源，uaa 中所有 JdbcTemplate 使用的 DataSource
+ *  默认路由到主库：授权码的生成和使用、吊销记录、会话、客户端信息的修改都在主库上
+ *  只有在 {@link #readOnly} 中执行的查询路由到健康的从库，多个从库轮询；没有健康的从库时回到主库
+ *
+ * 从库的健康检查按 uaa.datasource.replica.health-check-interval 定时执行，
+ * 取一个连接并调用 Connection.isValid，失败的从库不再接收读请求，恢复后自动加入
+ *
+ * 读请求是否允许读到复制延迟内的旧数据由调用方决定，见 {@link ReplicaClientDetailsService}
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 14:30
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    /**
+     * 健康检查时 Connection.isValid 的超时，单位秒
+     */
+    private final int healthCheckTimeout;
+
+    private volatile List<String> healthyReplicas = Collections.emptyList();
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, int healthCheckTimeout) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.healthCheckTimeout = healthCheckTimeout;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    /**
+     * 在从库上执行只读操作，可以嵌套
+     */
+    public static <T> T readOnly(Supplier<T> action) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                READ_ONLY.remove();
+            } else {
+                READ_ONLY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (READ_ONLY.get() == null) {
+            return PRIMARY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            primaryFallbacks.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return healthy.get((next.getAndIncrement() & Integer.MAX_VALUE) % healthy.size());
+    }
+
+    @Scheduled(fixedDelayString = "${uaa.datasource.replica.health-check-interval:5000}")
+    public void checkReplicas() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        List<String> healthy = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection()) {
+                if (connection.isValid(healthCheckTimeout)) {
+                    healthy.add(replicaKey(i));
+                }
+            } catch (SQLException e) {
+                logger.debug("从库 {} 健康检查失败", replicaKey(i), e);
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            logger.warn("可用的从库由 {} 变为 {}", healthyReplicas, healthy);
+        }
+        healthyReplicas = Collections.unmodifiableList(healthy);
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getHealthyReplicaCount() {
+        return healthyReplicas.size();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    /**
+     * 只读操作因为没有健康的从库而在主库上执行的次数
+     */
+    public long getPrimaryFallbacks() {
+        return primaryFallbacks.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+        if (primary instanceof Closeable) {
+            ((Closeable) primary).close();
+        }
+    }
+
+    private static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
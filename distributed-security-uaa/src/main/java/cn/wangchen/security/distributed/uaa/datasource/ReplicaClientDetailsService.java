@@ -0,0 +1,108 @@
+package cn.wangchen.security.distributed.uaa.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.oauth2.provider.ClientAlreadyExistsException;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.ClientRegistrationService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+import org.springframework.security.oauth2.provider.client.JdbcClientDetailsService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 客户端注册信息的查询走从库，修改走主库
+ *  通过本服务修改过的客户端，在 readYourWritesMillis 内仍从主库查询，避免读到复制延迟内的旧数据
+ *  从库在两次健康检查之间不可用时，本次查询改到主库重试
+ *
+ * 只能覆盖本节点的修改，其他节点或直接在数据库中的修改，在复制延迟内可能读到旧数据
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 14:45
+ */
+public class ReplicaClientDetailsService implements ClientDetailsService, ClientRegistrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaClientDetailsService.class);
+
+    private final JdbcClientDetailsService delegate;
+
+    private final long readYourWritesMillis;
+
+    /**
+     * 最近修改过的客户端及修改时间
+     */
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReplicaClientDetailsService(JdbcClientDetailsService delegate, long readYourWritesMillis) {
+        this.delegate = delegate;
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    @Override
+    public ClientDetails loadClientByClientId(String clientId) throws ClientRegistrationException {
+        Long writtenAt = recentWrites.get(clientId);
+        if (writtenAt != null) {
+            if (System.currentTimeMillis() - writtenAt < readYourWritesMillis) {
+                return delegate.loadClientByClientId(clientId);
+            }
+            recentWrites.remove(clientId, writtenAt);
+        }
+        try {
+            return ReadWriteRoutingDataSource.readOnly(() -> delegate.loadClientByClientId(clientId));
+        } catch (DataAccessException e) {
+            logger.warn("从库查询客户端 {} 失败，改为查询主库", clientId, e);
+            return delegate.loadClientByClientId(clientId);
+        }
+    }
+
+    @Override
+    public void addClientDetails(ClientDetails clientDetails) throws ClientAlreadyExistsException {
+        try {
+            delegate.addClientDetails(clientDetails);
+        } finally {
+            written(clientDetails.getClientId());
+        }
+    }
+
+    @Override
+    public void updateClientDetails(ClientDetails clientDetails) throws NoSuchClientException {
+        try {
+            delegate.updateClientDetails(clientDetails);
+        } finally {
+            written(clientDetails.getClientId());
+        }
+    }
+
+    @Override
+    public void updateClientSecret(String clientId, String secret) throws NoSuchClientException {
+        try {
+            delegate.updateClientSecret(clientId, secret);
+        } finally {
+            written(clientId);
+        }
+    }
+
+    @Override
+    public void removeClientDetails(String clientId) throws NoSuchClientException {
+        try {
+            delegate.removeClientDetails(clientId);
+        } finally {
+            written(clientId);
+        }
+    }
+
+    @Override
+    public List<ClientDetails> listClientDetails() {
+        return ReadWriteRoutingDataSource.readOnly(delegate::listClientDetails);
+    }
+
+    private void written(String clientId) {
+        recentWrites.put(clientId, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,58 @@
+package cn.wangchen.security.distributed.uaa.metrics;
+
+import cn.wangchen.security.common.metrics.Timers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 授权服务的耗时统计，通过 /actuator/metrics 查看
+ *  auth.client.lookup：查询客户端注册信息
+ *  auth.code.create / auth.code.consume：授权码的生成和使用
+ *  auth.token.issue / auth.token.refresh：令牌的签发和刷新
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 17:50
+ */
+@Component
+public class AuthMetrics {
+
+    private final Timer clientLookup;
+
+    private final Timer codeCreate;
+
+    private final Timer codeConsume;
+
+    private final Timer tokenIssue;
+
+    private final Timer tokenRefresh;
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.clientLookup = Timers.percentiles(registry, "auth.client.lookup", "查询客户端注册信息");
+        this.codeCreate = Timers.percentiles(registry, "auth.code.create", "生成授权码");
+        this.codeConsume = Timers.percentiles(registry, "auth.code.consume", "使用授权码");
+        this.tokenIssue = Timers.percentiles(registry, "auth.token.issue", "签发令牌");
+        this.tokenRefresh = Timers.percentiles(registry, "auth.token.refresh", "刷新令牌");
+    }
+
+    public Timer clientLookup() {
+        return clientLookup;
+    }
+
+    public Timer codeCreate() {
+        return codeCreate;
+    }
+
+    public Timer codeConsume() {
+        return codeConsume;
+    }
+
+    public Timer tokenIssue() {
+        return tokenIssue;
+    }
+
+    public Timer tokenRefresh() {
+        return tokenRefresh;
+    }
+}
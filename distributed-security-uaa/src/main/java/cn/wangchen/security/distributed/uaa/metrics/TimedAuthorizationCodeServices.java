@@ -0,0 +1,50 @@
+package cn.wangchen.security.distributed.uaa.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.common.exceptions.InvalidGrantException;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.code.AuthorizationCodeServices;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计授权码生成和使用的耗时
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 18:02
+ */
+public class TimedAuthorizationCodeServices implements AuthorizationCodeServices {
+
+    private final AuthorizationCodeServices delegate;
+
+    private final Timer createTimer;
+
+    private final Timer consumeTimer;
+
+    public TimedAuthorizationCodeServices(AuthorizationCodeServices delegate, Timer createTimer, Timer consumeTimer) {
+        this.delegate = delegate;
+        this.createTimer = createTimer;
+        this.consumeTimer = consumeTimer;
+    }
+
+    @Override
+    public String createAuthorizationCode(OAuth2Authentication authentication) {
+        long start = System.nanoTime();
+        try {
+            return delegate.createAuthorizationCode(authentication);
+        } finally {
+            createTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public OAuth2Authentication consumeAuthorizationCode(String code) throws InvalidGrantException {
+        long start = System.nanoTime();
+        try {
+            return delegate.consumeAuthorizationCode(code);
+        } finally {
+            consumeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
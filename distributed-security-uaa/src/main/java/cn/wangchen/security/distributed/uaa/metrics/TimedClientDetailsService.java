@@ -0,0 +1,70 @@
+package cn.wangchen.security.distributed.uaa.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.provider.ClientAlreadyExistsException;
+import org.springframework.security.oauth2.provider.ClientDetails;
+import org.springframework.security.oauth2.provider.ClientDetailsService;
+import org.springframework.security.oauth2.provider.ClientRegistrationException;
+import org.springframework.security.oauth2.provider.ClientRegistrationService;
+import org.springframework.security.oauth2.provider.NoSuchClientException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计查询客户端注册信息的耗时
+ * 修改客户端的操作原样交给被包装的服务，不统计耗时；被包装的服务必须同时支持查询和修改
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 17:58
+ */
+public class TimedClientDetailsService implements ClientDetailsService, ClientRegistrationService {
+
+    private final ClientDetailsService delegate;
+
+    private final ClientRegistrationService registration;
+
+    private final Timer timer;
+
+    public <T extends ClientDetailsService & ClientRegistrationService> TimedClientDetailsService(T delegate, Timer timer) {
+        this.delegate = delegate;
+        this.registration = delegate;
+        this.timer = timer;
+    }
+
+    @Override
+    public ClientDetails loadClientByClientId(String clientId) throws ClientRegistrationException {
+        long start = System.nanoTime();
+        try {
+            return delegate.loadClientByClientId(clientId);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void addClientDetails(ClientDetails clientDetails) throws ClientAlreadyExistsException {
+        registration.addClientDetails(clientDetails);
+    }
+
+    @Override
+    public void updateClientDetails(ClientDetails clientDetails) throws NoSuchClientException {
+        registration.updateClientDetails(clientDetails);
+    }
+
+    @Override
+    public void updateClientSecret(String clientId, String secret) throws NoSuchClientException {
+        registration.updateClientSecret(clientId, secret);
+    }
+
+    @Override
+    public void removeClientDetails(String clientId) throws NoSuchClientException {
+        registration.removeClientDetails(clientId);
+    }
+
+    @Override
+    public List<ClientDetails> listClientDetails() {
+        return registration.listClientDetails();
+    }
+}
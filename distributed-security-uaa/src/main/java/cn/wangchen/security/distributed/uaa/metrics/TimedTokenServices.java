@@ -0,0 +1,49 @@
+package cn.wangchen.security.distributed.uaa.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.TokenRequest;
+import org.springframework.security.oauth2.provider.token.DefaultTokenServices;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 统计令牌签发（生成、jwt增强、签名）和刷新的耗时
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 18:06
+ */
+public class TimedTokenServices extends DefaultTokenServices {
+
+    private final Timer issueTimer;
+
+    private final Timer refreshTimer;
+
+    public TimedTokenServices(Timer issueTimer, Timer refreshTimer) {
+        this.issueTimer = issueTimer;
+        this.refreshTimer = refreshTimer;
+    }
+
+    @Override
+    public OAuth2AccessToken createAccessToken(OAuth2Authentication authentication) throws AuthenticationException {
+        long start = System.nanoTime();
+        try {
+            return super.createAccessToken(authentication);
+        } finally {
+            issueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public OAuth2AccessToken refreshAccessToken(String refreshTokenValue, TokenRequest tokenRequest) throws AuthenticationException {
+        long start = System.nanoTime();
+        try {
+            return super.refreshAccessToken(refreshTokenValue, tokenRequest);
+        } finally {
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
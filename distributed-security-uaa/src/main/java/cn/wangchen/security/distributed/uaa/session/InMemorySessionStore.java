@@ -0,0 +1,86 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内的会话存储，只用于单节点运行和测试
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:20
+ */
+public class InMemorySessionStore implements SessionStore {
+
+    /**
+     * 主键到会话快照
+     */
+    private final Map<String, StoredSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 会话id到主键
+     */
+    private final Map<String, String> primaryIds = new ConcurrentHashMap<>();
+
+    @Override
+    public StoredSession load(String sessionId) {
+        String primaryId = primaryIds.get(sessionId);
+        return primaryId == null ? null : sessions.get(primaryId);
+    }
+
+    @Override
+    public long version(String sessionId) {
+        StoredSession session = load(sessionId);
+        return session == null ? MISSING : session.getVersion();
+    }
+
+    @Override
+    public synchronized Set<String> save(List<SessionDelta> deltas) {
+        Set<String> stale = new HashSet<>();
+        for (SessionDelta delta : deltas) {
+            StoredSession base = sessions.get(delta.getPrimaryId());
+            if (base == null && !delta.isCreated()) {
+                //会话已被删除
+                stale.add(delta.getPrimaryId());
+                continue;
+            }
+            if (base != null && base.getVersion() != delta.getBaseVersion()) {
+                stale.add(delta.getPrimaryId());
+            }
+            StoredSession updated = delta.applyTo(base);
+            if (base != null && !base.getSessionId().equals(updated.getSessionId())) {
+                primaryIds.remove(base.getSessionId());
+            }
+            sessions.put(updated.getPrimaryId(), updated);
+            primaryIds.put(updated.getSessionId(), updated.getPrimaryId());
+        }
+        return stale;
+    }
+
+    @Override
+    public synchronized void delete(String sessionId) {
+        String primaryId = primaryIds.remove(sessionId);
+        if (primaryId != null) {
+            sessions.remove(primaryId);
+        }
+    }
+
+    @Override
+    public synchronized int deleteExpired(long now) {
+        int deleted = 0;
+        Iterator<StoredSession> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            StoredSession session = iterator.next();
+            if (session.isExpired(now)) {
+                iterator.remove();
+                primaryIds.remove(session.getSessionId());
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+}
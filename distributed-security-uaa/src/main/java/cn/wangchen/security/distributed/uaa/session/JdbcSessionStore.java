@@ -0,0 +1,192 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 使用数据库保存会话，集群模式下所有 uaa 共享
+ *  一批修改合并为几条批量语句：更新会话、删除修改过的属性、插入修改过的属性
+ *  属性按主键保存，登录后更换会话id时只更新会话表的一行
+ *
+ * 需要先执行 uaa 模块中的 schema-session.sql 建表
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:30
+ */
+public class JdbcSessionStore implements SessionStore {
+
+    private static final String SELECT_SESSION_SQL =
+        "select primary_id, version, creation_time, last_access_time, max_inactive_interval from uaa_session where session_id = ?";
+
+    private static final String SELECT_ATTRIBUTES_SQL =
+        "select attribute_name, attribute_bytes from uaa_session_attributes where primary_id = ?";
+
+    private static final String SELECT_VERSION_SQL =
+        "select version from uaa_session where session_id = ?";
+
+    private static final String INSERT_SESSION_SQL =
+        "insert into uaa_session (primary_id, session_id, version, creation_time, last_access_time, max_inactive_interval, expiry_time) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SESSION_SQL =
+        "update uaa_session set session_id = ?, version = ?, last_access_time = ?, max_inactive_interval = ?, expiry_time = ? where primary_id = ?";
+
+    private static final String UPDATE_SESSION_IF_VERSION_SQL = UPDATE_SESSION_SQL + " and version = ?";
+
+    private static final String DELETE_ATTRIBUTE_SQL =
+        "delete from uaa_session_attributes where primary_id = ? and attribute_name = ?";
+
+    private static final String INSERT_ATTRIBUTE_SQL =
+        "insert into uaa_session_attributes (primary_id, attribute_name, attribute_bytes) values (?, ?, ?)";
+
+    private static final String DELETE_SESSION_ATTRIBUTES_SQL =
+        "delete from uaa_session_attributes where primary_id in (select primary_id from uaa_session where session_id = ?)";
+
+    private static final String DELETE_SESSION_SQL =
+        "delete from uaa_session where session_id = ?";
+
+    private static final String DELETE_EXPIRED_ATTRIBUTES_SQL =
+        "delete from uaa_session_attributes where primary_id in (select primary_id from uaa_session where expiry_time < ?)";
+
+    private static final String DELETE_EXPIRED_SQL =
+        "delete from uaa_session where expiry_time < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcSessionStore(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Override
+    public StoredSession load(String sessionId) {
+        List<StoredSession> sessions = jdbcTemplate.query(SELECT_SESSION_SQL, (rs, rowNum) ->
+            new StoredSession(rs.getString("primary_id"), sessionId, rs.getLong("version"), rs.getLong("creation_time"),
+                rs.getLong("last_access_time"), rs.getInt("max_inactive_interval"), new HashMap<>()), sessionId);
+        if (sessions.isEmpty()) {
+            return null;
+        }
+        StoredSession session = sessions.get(0);
+        Map<String, byte[]> attributes = new HashMap<>();
+        jdbcTemplate.query(SELECT_ATTRIBUTES_SQL, rs -> {
+            attributes.put(rs.getString("attribute_name"), rs.getBytes("attribute_bytes"));
+        }, session.getPrimaryId());
+        return new StoredSession(session.getPrimaryId(), sessionId, session.getVersion(), session.getCreationTime(),
+            session.getLastAccessedTime(), session.getMaxInactiveSeconds(), attributes);
+    }
+
+    @Override
+    public long version(String sessionId) {
+        List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class, sessionId);
+        return versions.isEmpty() ? MISSING : versions.get(0);
+    }
+
+    /**
+     * 一批修改在同一个事务中写入
+     *  先按修改前的版本号条件更新，不一致的再无条件更新一次，并报告给调用方
+     */
+    @Override
+    public Set<String> save(List<SessionDelta> deltas) {
+        return transactionTemplate.execute(status -> write(deltas));
+    }
+
+    private Set<String> write(List<SessionDelta> deltas) {
+        Set<String> stale = new HashSet<>();
+        List<SessionDelta> live = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<SessionDelta> updated = new ArrayList<>();
+        for (SessionDelta delta : deltas) {
+            if (delta.isCreated()) {
+                inserts.add(new Object[]{delta.getPrimaryId(), delta.getSessionId(), delta.getVersion(), delta.getCreationTime(),
+                    delta.getLastAccessedTime(), delta.getMaxInactiveSeconds(), delta.getExpiryTime()});
+                live.add(delta);
+            } else {
+                updates.add(updateArgs(delta, true));
+                updated.add(delta);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SESSION_SQL, inserts);
+        }
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SESSION_IF_VERSION_SQL, updates);
+            List<Object[]> retries = new ArrayList<>();
+            List<SessionDelta> retried = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    live.add(updated.get(i));
+                } else {
+                    //版本号已变化，或驱动没有返回行数
+                    stale.add(updated.get(i).getPrimaryId());
+                    retries.add(updateArgs(updated.get(i), false));
+                    retried.add(updated.get(i));
+                }
+            }
+            if (!retries.isEmpty()) {
+                int[] retryCounts = jdbcTemplate.batchUpdate(UPDATE_SESSION_SQL, retries);
+                for (int i = 0; i < retryCounts.length; i++) {
+                    //0 表示会话已被删除，不再写入属性
+                    if (retryCounts[i] != 0) {
+                        live.add(retried.get(i));
+                    }
+                }
+            }
+        }
+
+        List<Object[]> attributeDeletes = new ArrayList<>();
+        List<Object[]> attributeInserts = new ArrayList<>();
+        for (SessionDelta delta : live) {
+            if (!delta.isCreated()) {
+                for (String name : delta.getRemoved()) {
+                    attributeDeletes.add(new Object[]{delta.getPrimaryId(), name});
+                }
+                for (String name : delta.getChanged().keySet()) {
+                    attributeDeletes.add(new Object[]{delta.getPrimaryId(), name});
+                }
+            }
+            for (Map.Entry<String, byte[]> entry : delta.getChanged().entrySet()) {
+                attributeInserts.add(new Object[]{delta.getPrimaryId(), entry.getKey(), entry.getValue()});
+            }
+        }
+        if (!attributeDeletes.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ATTRIBUTE_SQL, attributeDeletes);
+        }
+        if (!attributeInserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE_SQL, attributeInserts);
+        }
+        return stale;
+    }
+
+    private static Object[] updateArgs(SessionDelta delta, boolean checkVersion) {
+        Object[] args = {delta.getSessionId(), delta.getVersion(), delta.getLastAccessedTime(), delta.getMaxInactiveSeconds(),
+            delta.getExpiryTime(), delta.getPrimaryId(), delta.getBaseVersion()};
+        return checkVersion ? args : Arrays.copyOf(args, 6);
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        transactionTemplate.execute(status -> {
+            jdbcTemplate.update(DELETE_SESSION_ATTRIBUTES_SQL, sessionId);
+            return jdbcTemplate.update(DELETE_SESSION_SQL, sessionId);
+        });
+    }
+
+    @Override
+    public int deleteExpired(long now) {
+        jdbcTemplate.update(DELETE_EXPIRED_ATTRIBUTES_SQL, now);
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, now);
+    }
+}
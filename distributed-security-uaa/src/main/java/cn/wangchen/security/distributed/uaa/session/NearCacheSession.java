@@ -0,0 +1,220 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.session.Session;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 一次请求中使用的会话
+ *  属性在第一次读取时才反序列化，没有读取的属性保持为字节
+ *  记录修改过和删除的属性，保存时只写这些属性
+ *  修改已读取的属性对象后需要重新 setAttribute 才会保存，与 spring session 的其他实现一致
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:45
+ */
+public class NearCacheSession implements Session {
+
+    private final String primaryId;
+
+    private boolean created;
+
+    private StoredSession base;
+
+    private final Converter<byte[], Object> deserializer;
+
+    private String id;
+
+    private final Instant creationTime;
+
+    private Instant lastAccessedTime;
+
+    private Duration maxInactiveInterval;
+
+    private boolean metadataChanged;
+
+    /**
+     * 已反序列化或新设置的属性
+     */
+    private final Map<String, Object> values = new HashMap<>();
+
+    private final Set<String> changed = new HashSet<>();
+
+    private final Set<String> removed = new HashSet<>();
+
+    /**
+     * 新建的会话
+     */
+    NearCacheSession(Duration maxInactiveInterval, Converter<byte[], Object> deserializer) {
+        this.primaryId = UUID.randomUUID().toString();
+        this.created = true;
+        this.base = null;
+        this.deserializer = deserializer;
+        this.id = UUID.randomUUID().toString();
+        this.creationTime = Instant.now();
+        this.lastAccessedTime = creationTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    /**
+     * 从存储或近端缓存中读取的会话
+     */
+    NearCacheSession(StoredSession base, Converter<byte[], Object> deserializer) {
+        this.primaryId = base.getPrimaryId();
+        this.created = false;
+        this.base = base;
+        this.deserializer = deserializer;
+        this.id = base.getSessionId();
+        this.creationTime = Instant.ofEpochMilli(base.getCreationTime());
+        this.lastAccessedTime = Instant.ofEpochMilli(base.getLastAccessedTime());
+        this.maxInactiveInterval = Duration.ofSeconds(base.getMaxInactiveSeconds());
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String changeSessionId() {
+        id = UUID.randomUUID().toString();
+        metadataChanged = true;
+        return id;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String attributeName) {
+        if (values.containsKey(attributeName)) {
+            return (T) values.get(attributeName);
+        }
+        if (removed.contains(attributeName) || base == null) {
+            return null;
+        }
+        byte[] bytes = base.getAttributes().get(attributeName);
+        if (bytes == null) {
+            return null;
+        }
+        Object value = deserializer.convert(bytes);
+        values.put(attributeName, value);
+        return (T) value;
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        Set<String> names = new LinkedHashSet<>();
+        if (base != null) {
+            names.addAll(base.getAttributes().keySet());
+        }
+        names.addAll(values.keySet());
+        names.removeAll(removed);
+        return names;
+    }
+
+    @Override
+    public void setAttribute(String attributeName, Object attributeValue) {
+        if (attributeValue == null) {
+            removeAttribute(attributeName);
+            return;
+        }
+        values.put(attributeName, attributeValue);
+        changed.add(attributeName);
+        removed.remove(attributeName);
+    }
+
+    @Override
+    public void removeAttribute(String attributeName) {
+        values.remove(attributeName);
+        changed.remove(attributeName);
+        if (base != null && base.getAttributes().containsKey(attributeName)) {
+            removed.add(attributeName);
+        }
+    }
+
+    @Override
+    public Instant getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public void setLastAccessedTime(Instant lastAccessedTime) {
+        this.lastAccessedTime = lastAccessedTime;
+    }
+
+    @Override
+    public Instant getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(Duration interval) {
+        if (!interval.equals(maxInactiveInterval)) {
+            maxInactiveInterval = interval;
+            metadataChanged = true;
+        }
+    }
+
+    @Override
+    public Duration getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    public boolean isExpired() {
+        return !maxInactiveInterval.isNegative()
+            && Instant.now().minus(maxInactiveInterval).compareTo(lastAccessedTime) >= 0;
+    }
+
+    /**
+     * 是否有需要写入的修改
+     * @param accessTimeResolution 只有最后访问时间变化时，变化超过该值才写入，单位毫秒
+     */
+    boolean isDirty(long accessTimeResolution) {
+        if (created || metadataChanged || !changed.isEmpty() || !removed.isEmpty()) {
+            return true;
+        }
+        return lastAccessedTime.toEpochMilli() - base.getLastAccessedTime() >= accessTimeResolution;
+    }
+
+    /**
+     * 生成本次请求的修改，修改过的属性在这里序列化
+     * @param version 写入后的版本号
+     * @param serializer 属性的序列化
+     */
+    SessionDelta toDelta(long version, Converter<Object, byte[]> serializer) {
+        SessionDelta delta = new SessionDelta(primaryId, created, base == null ? SessionStore.MISSING : base.getVersion(), id, version, creationTime.toEpochMilli(),
+            lastAccessedTime.toEpochMilli(), (int) maxInactiveInterval.getSeconds());
+        for (String name : removed) {
+            delta.remove(name);
+        }
+        for (String name : changed) {
+            delta.change(name, serializer.convert(values.get(name)));
+        }
+        return delta;
+    }
+
+    /**
+     * 写入后，写入的快照成为新的基础，同一个请求中再次保存时只写之后的修改
+     * @param snapshot 写入后的快照
+     */
+    void saved(StoredSession snapshot) {
+        base = snapshot;
+        created = false;
+        metadataChanged = false;
+        changed.clear();
+        removed.clear();
+    }
+
+    StoredSession getBase() {
+        return base;
+    }
+}
@@ -0,0 +1,344 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带近端缓存的会话仓库，会话保存在共享的 {@link SessionStore} 中，任意 uaa 节点都可以处理授权码流程的任意一步
+ *
+ *  近端缓存：每个节点缓存最近使用的会话快照，读取时先用版本号校验，版本一致时不再读取属性
+ *  延迟反序列化：快照中的属性保持为字节，请求读取时才反序列化，见 {@link NearCacheSession}
+ *  增量写入：只序列化和写入修改过的属性；只有最后访问时间变化时，超过 access-time-resolution 才写入
+ *  批量写入：各请求的修改交给一个写线程，把排队中的修改合并为一批写入，请求等待写入完成后才返回，
+ *           下一步请求落到其他节点时能读到最新的会话；等待超时且还没有开始写入的修改会被丢弃
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 10:00
+ */
+public class NearCachingSessionRepository implements SessionRepository<NearCacheSession> {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearCachingSessionRepository.class);
+
+    private final SessionStore store;
+
+    private final Duration maxInactiveInterval;
+
+    private final long accessTimeResolution;
+
+    private final int batchSize;
+
+    private final long writeTimeout;
+
+    private final SerializingConverter serializer = new SerializingConverter();
+
+    private final DeserializingConverter deserializer = new DeserializingConverter(getClass().getClassLoader());
+
+    /**
+     * 会话id到快照，按访问顺序淘汰，所有访问都在 nearCache 上同步
+     */
+    private final Map<String, StoredSession> nearCache;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    /**
+     * @param store 共享存储
+     * @param maxInactiveSeconds 会话最长不活动时间，单位秒
+     * @param nearCacheSize 近端缓存的会话数
+     * @param accessTimeResolution 最后访问时间的写入精度，单位毫秒
+     * @param batchSize 一批最多写入的会话数
+     * @param writeTimeout 请求等待写入的最长时间，单位毫秒
+     */
+    public NearCachingSessionRepository(SessionStore store, int maxInactiveSeconds, int nearCacheSize,
+                                        long accessTimeResolution, int batchSize, long writeTimeout) {
+        this.store = store;
+        this.maxInactiveInterval = Duration.ofSeconds(maxInactiveSeconds);
+        this.accessTimeResolution = accessTimeResolution;
+        this.batchSize = batchSize;
+        this.writeTimeout = writeTimeout;
+        this.nearCache = new LinkedHashMap<String, StoredSession>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredSession> eldest) {
+                return size() > nearCacheSize;
+            }
+        };
+    }
+
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "session-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void close() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(writeTimeout);
+    }
+
+    @Override
+    public NearCacheSession createSession() {
+        return new NearCacheSession(maxInactiveInterval, deserializer);
+    }
+
+    @Override
+    public NearCacheSession findById(String id) {
+        StoredSession snapshot;
+        synchronized (nearCache) {
+            snapshot = nearCache.get(id);
+        }
+        if (snapshot != null) {
+            long version = store.version(id);
+            if (version == snapshot.getVersion()) {
+                hits.increment();
+            } else {
+                snapshot = version == SessionStore.MISSING ? null : store.load(id);
+                misses.increment();
+                cache(id, snapshot);
+            }
+        } else {
+            snapshot = store.load(id);
+            misses.increment();
+            cache(id, snapshot);
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        if (snapshot.isExpired(System.currentTimeMillis())) {
+            deleteById(id);
+            return null;
+        }
+        return new NearCacheSession(snapshot, deserializer);
+    }
+
+    @Override
+    public void save(NearCacheSession session) {
+        if (!session.isDirty(accessTimeResolution)) {
+            return;
+        }
+        StoredSession base = session.getBase();
+        SessionDelta delta = session.toDelta(nextVersion(), serializer);
+
+        PendingWrite write = new PendingWrite(delta);
+        queue.add(write);
+        boolean complete = await(write);
+
+        StoredSession snapshot = delta.applyTo(base);
+        if (base != null && !base.getSessionId().equals(snapshot.getSessionId())) {
+            cache(base.getSessionId(), null);
+        }
+        //其他请求同时修改了这个会话时，本地快照缺少它们的修改，下次从存储读取
+        cache(snapshot.getSessionId(), complete ? snapshot : null);
+        session.saved(snapshot);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.delete(id);
+        cache(id, null);
+    }
+
+    /**
+     * 定时删除存储中过期的会话
+     */
+    @Scheduled(fixedDelayString = "${security.session.cleanup-interval:60000}")
+    public void purgeExpired() {
+        int deleted = store.deleteExpired(System.currentTimeMillis());
+        if (deleted > 0) {
+            logger.debug("删除过期会话 {} 个", deleted);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * 等待写入完成，超时或被中断时，写线程还没有取走的写入直接放弃，请求失败时存储中不会再出现这次修改；
+     * 已经在写入中的批次里的，等待这一批写完，按写入的结果返回
+     */
+    private boolean await(PendingWrite write) {
+        try {
+            return write.done.get(writeTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | TimeoutException e) {
+            boolean interrupted = e instanceof InterruptedException;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (write.abandon()) {
+                queue.remove(write);
+                throw new IllegalStateException(interrupted ? "保存会话被中断" : "保存会话超时", e);
+            }
+            try {
+                return write.done.join();
+            } catch (CompletionException ce) {
+                throw new IllegalStateException("保存会话失败", ce.getCause());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("保存会话失败", e);
+        }
+    }
+
+    private void cache(String id, StoredSession snapshot) {
+        synchronized (nearCache) {
+            if (snapshot == null) {
+                nearCache.remove(id);
+            } else {
+                nearCache.put(id, snapshot);
+            }
+        }
+    }
+
+    /**
+     * 版本号只用于判断是否变化，随机生成，不会与其他节点冲突
+     */
+    private static long nextVersion() {
+        long version;
+        do {
+            version = ThreadLocalRandom.current().nextLong();
+        } while (version == SessionStore.MISSING);
+        return version;
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> polled = new ArrayList<>(batchSize);
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                polled.add(first);
+                queue.drainTo(polled, batchSize - 1);
+                for (PendingWrite write : polled) {
+                    //请求已经超时放弃的不再写入
+                    if (write.claim()) {
+                        batch.add(write);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                polled.clear();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 同一个会话在一批中出现多次时按顺序合并，合并过的会话不放入近端缓存
+     */
+    private void write(List<PendingWrite> batch) {
+        Map<String, SessionDelta> merged = new LinkedHashMap<>();
+        Set<String> stale = new HashSet<>();
+        for (PendingWrite write : batch) {
+            String primaryId = write.delta.getPrimaryId();
+            SessionDelta previous = merged.get(primaryId);
+            if (previous == null) {
+                merged.put(primaryId, write.delta);
+            } else {
+                if (stale.add(primaryId)) {
+                    //第一次合并时复制，不修改请求线程持有的对象
+                    previous = previous.copy();
+                    merged.put(primaryId, previous);
+                }
+                previous.merge(write.delta);
+            }
+        }
+        try {
+            stale.addAll(store.save(new ArrayList<>(merged.values())));
+            writes.add(batch.size());
+            batches.increment();
+            for (PendingWrite write : batch) {
+                write.done.complete(!stale.contains(write.delta.getPrimaryId()));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("写入会话失败，{} 个会话", merged.size(), e);
+            for (PendingWrite write : batch) {
+                write.done.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PendingWrite {
+
+        private final SessionDelta delta;
+
+        /**
+         * 写入完成，值表示写入后的快照是否完整
+         */
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        /**
+         * 写线程取走和请求放弃只有一方能成功
+         */
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        PendingWrite(SessionDelta delta) {
+            this.delta = delta;
+        }
+
+        boolean claim() {
+            return decided.compareAndSet(false, true);
+        }
+
+        boolean abandon() {
+            if (!decided.compareAndSet(false, true)) {
+                return false;
+            }
+            done.cancel(false);
+            return true;
+        }
+    }
+}
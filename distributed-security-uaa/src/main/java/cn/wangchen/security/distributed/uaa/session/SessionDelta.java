@@ -0,0 +1,153 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一次请求对会话的修改：会话的元数据，加上修改过和删除的属性
+ *  没有修改的属性不会重新序列化，也不会写入存储
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:10
+ */
+public class SessionDelta {
+
+    private final String primaryId;
+
+    private final boolean created;
+
+    private final long baseVersion;
+
+    private String sessionId;
+
+    private long version;
+
+    private final long creationTime;
+
+    private long lastAccessedTime;
+
+    private int maxInactiveSeconds;
+
+    private final Map<String, byte[]> changed = new LinkedHashMap<>();
+
+    private final Set<String> removed = new HashSet<>();
+
+    /**
+     * @param primaryId 不变的主键
+     * @param created 是否为新建的会话
+     * @param baseVersion 修改前的版本号，新建的会话为 {@link SessionStore#MISSING}
+     * @param sessionId 当前的会话id
+     * @param version 写入后的版本号
+     * @param creationTime 创建时间，单位毫秒
+     * @param lastAccessedTime 最后访问时间，单位毫秒
+     * @param maxInactiveSeconds 最长不活动时间，单位秒
+     */
+    public SessionDelta(String primaryId, boolean created, long baseVersion, String sessionId, long version, long creationTime,
+                        long lastAccessedTime, int maxInactiveSeconds) {
+        this.primaryId = primaryId;
+        this.created = created;
+        this.baseVersion = baseVersion;
+        this.sessionId = sessionId;
+        this.version = version;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveSeconds = maxInactiveSeconds;
+    }
+
+    public void change(String name, byte[] value) {
+        changed.put(name, value);
+        removed.remove(name);
+    }
+
+    public void remove(String name) {
+        changed.remove(name);
+        removed.add(name);
+    }
+
+    /**
+     * 复制一份，合并时不修改原来的对象
+     */
+    public SessionDelta copy() {
+        SessionDelta copy = new SessionDelta(primaryId, created, baseVersion, sessionId, version, creationTime, lastAccessedTime, maxInactiveSeconds);
+        copy.changed.putAll(changed);
+        copy.removed.addAll(removed);
+        return copy;
+    }
+
+    /**
+     * 合并同一个会话之后的一次修改，用于同一批写入中出现多次的会话
+     * @param later 之后的修改
+     */
+    public void merge(SessionDelta later) {
+        this.sessionId = later.sessionId;
+        this.version = later.version;
+        this.lastAccessedTime = later.lastAccessedTime;
+        this.maxInactiveSeconds = later.maxInactiveSeconds;
+        for (String name : later.removed) {
+            remove(name);
+        }
+        for (Map.Entry<String, byte[]> entry : later.changed.entrySet()) {
+            change(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 在修改前的快照上应用本次修改
+     * @param base 修改前的快照，新建的会话为null
+     * @return 修改后的快照
+     */
+    public StoredSession applyTo(StoredSession base) {
+        Map<String, byte[]> attributes = base == null ? new HashMap<>() : new HashMap<>(base.getAttributes());
+        attributes.keySet().removeAll(removed);
+        attributes.putAll(changed);
+        return new StoredSession(primaryId, sessionId, version, creationTime, lastAccessedTime, maxInactiveSeconds, attributes);
+    }
+
+    public String getPrimaryId() {
+        return primaryId;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public long getBaseVersion() {
+        return baseVersion;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    public int getMaxInactiveSeconds() {
+        return maxInactiveSeconds;
+    }
+
+    public long getExpiryTime() {
+        return lastAccessedTime + maxInactiveSeconds * 1000L;
+    }
+
+    public Map<String, byte[]> getChanged() {
+        return changed;
+    }
+
+    public Set<String> getRemoved() {
+        return removed;
+    }
+}
@@ -0,0 +1,56 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 会话的共享存储，所有 uaa 节点读写同一份数据，不再需要粘性路由
+ *  属性以序列化后的字节保存，存储本身不关心属性的类型
+ *  每次写入都会更换版本号，节点用版本号判断本地近端缓存是否还有效
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:00
+ */
+public interface SessionStore {
+
+    /**
+     * 版本号不存在，会话已删除或过期
+     */
+    long MISSING = 0L;
+
+    /**
+     * 读取会话的全部数据
+     * @param sessionId 会话id
+     * @return 不存在时返回null
+     */
+    StoredSession load(String sessionId);
+
+    /**
+     * 只读取版本号，用于校验近端缓存
+     * @param sessionId 会话id
+     * @return 不存在时返回 {@link #MISSING}
+     */
+    long version(String sessionId);
+
+    /**
+     * 批量写入会话的变化，同一个会话在一批中最多出现一次
+     * 写入前存储中的版本号与修改前的版本号不一致时仍然写入，修改过的属性以后写入的为准
+     * @param deltas 会话的变化
+     * @return 版本号不一致或已被删除的会话主键，这些会话写入后的快照不完整，不能放入近端缓存
+     */
+    Set<String> save(List<SessionDelta> deltas);
+
+    /**
+     * 删除会话
+     * @param sessionId 会话id
+     */
+    void delete(String sessionId);
+
+    /**
+     * 删除已过期的会话
+     * @param now 当前时间，单位毫秒
+     * @return 删除的会话数
+     */
+    int deleteExpired(long now);
+}
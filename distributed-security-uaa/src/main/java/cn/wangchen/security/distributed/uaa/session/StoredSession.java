@@ -0,0 +1,84 @@
+package cn.wangchen.security.distributed.uaa.session;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 存储中的会话快照，创建后不再修改，可以在近端缓存中被多个请求共享
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/21 09:05
+ */
+public class StoredSession {
+
+    private final String primaryId;
+
+    private final String sessionId;
+
+    private final long version;
+
+    private final long creationTime;
+
+    private final long lastAccessedTime;
+
+    private final int maxInactiveSeconds;
+
+    private final Map<String, byte[]> attributes;
+
+    /**
+     * @param primaryId 不变的主键，会话id变化时不变
+     * @param sessionId 会话id，登录后会更换
+     * @param version 版本号
+     * @param creationTime 创建时间，单位毫秒
+     * @param lastAccessedTime 最后访问时间，单位毫秒
+     * @param maxInactiveSeconds 最长不活动时间，单位秒
+     * @param attributes 属性名和序列化后的值
+     */
+    public StoredSession(String primaryId, String sessionId, long version, long creationTime, long lastAccessedTime,
+                         int maxInactiveSeconds, Map<String, byte[]> attributes) {
+        this.primaryId = primaryId;
+        this.sessionId = sessionId;
+        this.version = version;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveSeconds = maxInactiveSeconds;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    public String getPrimaryId() {
+        return primaryId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    public long getLastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    public int getMaxInactiveSeconds() {
+        return maxInactiveSeconds;
+    }
+
+    public Map<String, byte[]> getAttributes() {
+        return attributes;
+    }
+
+    public long getExpiryTime() {
+        return lastAccessedTime + maxInactiveSeconds * 1000L;
+    }
+
+    public boolean isExpired(long now) {
+        return maxInactiveSeconds >= 0 && now >= getExpiryTime();
+    }
+}
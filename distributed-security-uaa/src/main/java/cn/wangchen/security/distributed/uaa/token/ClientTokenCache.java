@@ -0,0 +1,169 @@
+package cn.wangchen.security.distributed.uaa.token;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.OAuth2Request;
+import org.springframework.security.oauth2.provider.token.AccessTokenConverter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * 客户端模式令牌的复用缓存
+ *  jwt令牌不落库，DefaultTokenServices 无法找到已签发的令牌，每次请求都会重新生成、签名
+ *  按 client_id + scope + resource_ids + 权限 缓存未过期的令牌，临近过期时才重新签发
+ *  并发请求同一个key时只签发一次，其他请求等待结果
+ *  返回的令牌 expires_in 根据过期时间计算，自然是剩余的有效期
+ *  复用前检查令牌是否已吊销，其他 uaa 节点吊销的令牌同样不再返回
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 14:10
+ */
+public class ClientTokenCache {
+
+    private final Map<List<String>, CompletableFuture<OAuth2AccessToken>> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * 剩余有效期小于该值时重新签发，单位秒
+     */
+    private final int refreshMarginSeconds;
+
+    private final int maxEntries;
+
+    /**
+     * 按 jti 判断令牌是否已吊销
+     */
+    private final Predicate<String> revoked;
+
+    public ClientTokenCache(int refreshMarginSeconds, int maxEntries, Predicate<String> revoked) {
+        this.refreshMarginSeconds = refreshMarginSeconds;
+        this.maxEntries = maxEntries;
+        this.revoked = revoked;
+    }
+
+    /**
+     * 获取可复用的令牌，没有时签发
+     * @param authentication 客户端模式的认证信息
+     * @param minter 签发新令牌
+     * @return
+     */
+    public OAuth2AccessToken get(OAuth2Authentication authentication, Supplier<OAuth2AccessToken> minter) {
+        List<String> key = key(authentication);
+        while (true) {
+            CompletableFuture<OAuth2AccessToken> existing = tokens.get(key);
+            if (existing == null) {
+                if (tokens.size() >= maxEntries) {
+                    tokens.clear();
+                }
+                CompletableFuture<OAuth2AccessToken> mine = new CompletableFuture<>();
+                if (tokens.putIfAbsent(key, mine) == null) {
+                    return mint(key, mine, minter);
+                }
+                continue;
+            }
+            if (!existing.isDone()) {
+                //其他请求正在签发，等待结果
+                return await(existing);
+            }
+            OAuth2AccessToken token = existing.isCompletedExceptionally() ? null : existing.getNow(null);
+            if (token != null && isReusable(token) && !isRevoked(token)) {
+                return token;
+            }
+            CompletableFuture<OAuth2AccessToken> mine = new CompletableFuture<>();
+            if (tokens.replace(key, existing, mine)) {
+                return mint(key, mine, minter);
+            }
+        }
+    }
+
+    /**
+     * 令牌被吊销后不再复用
+     * @param jti 令牌id
+     */
+    public void evict(String jti) {
+        Iterator<CompletableFuture<OAuth2AccessToken>> it = tokens.values().iterator();
+        while (it.hasNext()) {
+            CompletableFuture<OAuth2AccessToken> future = it.next();
+            OAuth2AccessToken token = future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+            if (token != null && jti.equals(token.getAdditionalInformation().get(AccessTokenConverter.JTI))) {
+                it.remove();
+            }
+        }
+    }
+
+    private boolean isRevoked(OAuth2AccessToken token) {
+        Object jti = token.getAdditionalInformation().get(AccessTokenConverter.JTI);
+        return jti != null && revoked.test(jti.toString());
+    }
+
+    private boolean isReusable(OAuth2AccessToken token) {
+        return token.getExpiration() != null
+            && token.getExpiration().getTime() - System.currentTimeMillis() > refreshMarginSeconds * 1000L;
+    }
+
+    private OAuth2AccessToken mint(List<String> key, CompletableFuture<OAuth2AccessToken> future, Supplier<OAuth2AccessToken> minter) {
+        OAuth2AccessToken token;
+        try {
+            token = minter.get();
+        } catch (RuntimeException e) {
+            tokens.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        if (!isReusable(token)) {
+            //有效期比重新签发的阈值还短，不缓存
+            tokens.remove(key, future);
+        }
+        future.complete(token);
+        return token;
+    }
+
+    private static OAuth2AccessToken await(CompletableFuture<OAuth2AccessToken> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待令牌签发时被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private static List<String> key(OAuth2Authentication authentication) {
+        OAuth2Request request = authentication.getOAuth2Request();
+        List<String> key = new ArrayList<>();
+        key.add(request.getClientId());
+        key.add(sorted(request.getScope()));
+        key.add(sorted(request.getResourceIds()));
+        List<String> authorities = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        key.add(sorted(authorities));
+        return key;
+    }
+
+    private static String sorted(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return "";
+        }
+        List<String> list = new ArrayList<>(values);
+        Collections.sort(list);
+        return String.join(" ", list);
+    }
+}
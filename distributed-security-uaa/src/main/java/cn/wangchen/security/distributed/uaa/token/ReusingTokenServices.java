@@ -0,0 +1,63 @@
+package cn.wangchen.security.distributed.uaa.token;
+
+import cn.wangchen.security.audit.AuditLog;
+import cn.wangchen.security.audit.AuditRecord;
+import cn.wangchen.security.common.correlation.CorrelationId;
+import cn.wangchen.security.distributed.uaa.metrics.TimedTokenServices;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.MDC;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.common.OAuth2AccessToken;
+import org.springframework.security.oauth2.provider.OAuth2Authentication;
+import org.springframework.security.oauth2.provider.TokenRequest;
+
+/**
+ * 客户端模式的令牌复用未过期的，其他授权模式仍然每次签发
+ * 复用的令牌不计入 auth.token.issue
+ * 每次返回令牌都写一条审计记录，包括复用的
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/20 14:40
+ */
+public class ReusingTokenServices extends TimedTokenServices {
+
+    private final ClientTokenCache clientTokenCache;
+
+    private AuditLog auditLog;
+
+    public ReusingTokenServices(Timer issueTimer, Timer refreshTimer, ClientTokenCache clientTokenCache) {
+        super(issueTimer, refreshTimer);
+        this.clientTokenCache = clientTokenCache;
+    }
+
+    public void setAuditLog(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public OAuth2AccessToken createAccessToken(OAuth2Authentication authentication) throws AuthenticationException {
+        OAuth2AccessToken token;
+        if (!authentication.isClientOnly()) {
+            token = super.createAccessToken(authentication);
+        } else {
+            token = clientTokenCache.get(authentication, () -> super.createAccessToken(authentication));
+        }
+        audit(AuditRecord.TOKEN_ISSUE, token, authentication.getName(),
+            authentication.getOAuth2Request().getClientId(), authentication.getOAuth2Request().getGrantType());
+        return token;
+    }
+
+    @Override
+    public OAuth2AccessToken refreshAccessToken(String refreshTokenValue, TokenRequest tokenRequest) throws AuthenticationException {
+        OAuth2AccessToken token = super.refreshAccessToken(refreshTokenValue, tokenRequest);
+        audit(AuditRecord.TOKEN_REFRESH, token, null, tokenRequest.getClientId(), tokenRequest.getGrantType());
+        return token;
+    }
+
+    private void audit(byte type, OAuth2AccessToken token, String principal, String clientId, String grantType) {
+        if (auditLog != null) {
+            auditLog.record(type, true, token.getExpiresIn(), MDC.get(CorrelationId.MDC_KEY), principal, clientId, grantType);
+        }
+    }
+}
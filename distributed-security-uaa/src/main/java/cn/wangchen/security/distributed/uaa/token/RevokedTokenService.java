@@ -0,0 +1,150 @@
+package cn.wangchen.security.distributed.uaa.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已吊销令牌的存储，使用数据库保存，集群模式下所有 uaa 共享
+ * 只记录令牌的 jti 和过期时间，令牌过期后记录会被定时清理
+ * 本地保存一份吊销列表，定时从数据库增量同步，其他 uaa 节点吊销的令牌在一个同步周期内可见，
+ * 供复用客户端模式令牌前检查，见 {@link ClientTokenCache}
+ *
+ * 需要先建表
+ * CREATE TABLE oauth_revoked_token (
+ *     id BIGINT NOT NULL AUTO_INCREMENT,
+ *     jti VARCHAR(64) NOT NULL,
+ *     expires_at BIGINT NOT NULL,
+ *     PRIMARY KEY (id),
+ *     UNIQUE KEY uk_jti (jti),
+ *     KEY idx_expires_at (expires_at)
+ * );
+ *
+ * @author wangchen
+ * @version 1.0
+ * @date 2026/10/19 10:12
+ */
+@Service
+public class RevokedTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(RevokedTokenService.class);
+
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * 数据库自增id可能乱序提交，每次回退一段重新读取，重复记录不影响结果
+     */
+    private static final long OVERLAP = 100;
+
+    private static final String INSERT_SQL =
+        "insert into oauth_revoked_token (jti, expires_at) values (?, ?)";
+
+    private static final String SELECT_SINCE_SQL =
+        "select id, jti, expires_at from oauth_revoked_token where id > ? and expires_at > ? order by id limit ?";
+
+    private static final String DELETE_EXPIRED_SQL =
+        "delete from oauth_revoked_token where expires_at <= ?";
+
+    private static final RowMapper<Map<String, Object>> ENTRY_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("id", rs.getLong("id"));
+        entry.put("jti", rs.getString("jti"));
+        entry.put("exp", rs.getLong("expires_at"));
+        return entry;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 本地吊销列表，jti -> 过期时间，单位秒
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private long lastId = 0;
+
+    public RevokedTokenService(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 吊销令牌
+     * @param jti 令牌id
+     * @param expiresAt 令牌过期时间，单位秒
+     * @return 是否为新吊销的令牌
+     */
+    public boolean revoke(String jti, long expiresAt) {
+        revoked.put(jti, expiresAt);
+        try {
+            return jdbcTemplate.update(INSERT_SQL, jti, expiresAt) > 0;
+        } catch (DuplicateKeyException e) {
+            //重复吊销，忽略
+            return false;
+        }
+    }
+
+    /**
+     * 按本地吊销列表判断令牌是否已吊销
+     * @param jti 令牌id
+     * @return
+     */
+    public boolean isRevoked(String jti) {
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * 从数据库增量同步其他节点吊销的令牌
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.sync-interval:5000}")
+    public synchronized void sync() {
+        try {
+            long since = Math.max(0, lastId - OVERLAP);
+            while (true) {
+                List<Map<String, Object>> entries = listSince(since, PAGE_SIZE);
+                for (Map<String, Object> entry : entries) {
+                    revoked.put((String) entry.get("jti"), (Long) entry.get("exp"));
+                    since = Math.max(since, (Long) entry.get("id"));
+                }
+                lastId = Math.max(lastId, since);
+                if (entries.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("同步令牌吊销列表失败", e);
+        }
+    }
+
+    /**
+     * 增量读取吊销记录，供网关和资源服务同步
+     * @param since 上次同步到的记录id
+     * @param limit 单次最多返回条数
+     * @return id、jti、exp 组成的记录
+     */
+    public List<Map<String, Object>> listSince(long since, int limit) {
+        return jdbcTemplate.query(SELECT_SINCE_SQL, ENTRY_MAPPER, since, currentSeconds(), limit);
+    }
+
+    /**
+     * 令牌过期后已无需吊销，定时清理
+     */
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:600000}")
+    public void purgeExpired() {
+        long now = currentSeconds();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, now);
+    }
+
+    private static long currentSeconds() {
+        return System.currentTimeMillis() / 1000L;
+    }
+}
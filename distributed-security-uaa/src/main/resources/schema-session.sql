@@ -0,0 +1,21 @@
+-- security.session.store=jdbc 时 uaa 会话使用的表，见 JdbcSessionStore
+-- 从进程内会话切换到数据库会话时，先在 uaa 的库中执行本脚本，再修改配置，已登录的会话需要重新登录
+CREATE TABLE IF NOT EXISTS uaa_session (
+    primary_id CHAR(36) NOT NULL,
+    session_id CHAR(36) NOT NULL,
+    version BIGINT NOT NULL,
+    creation_time BIGINT NOT NULL,
+    last_access_time BIGINT NOT NULL,
+    max_inactive_interval INT NOT NULL,
+    expiry_time BIGINT NOT NULL,
+    PRIMARY KEY (primary_id),
+    UNIQUE KEY uk_session_id (session_id),
+    KEY idx_expiry_time (expiry_time)
+);
+
+CREATE TABLE IF NOT EXISTS uaa_session_attributes (
+    primary_id CHAR(36) NOT NULL,
+    attribute_name VARCHAR(200) NOT NULL,
+    attribute_bytes BLOB NOT NULL,
+    PRIMARY KEY (primary_id, attribute_name)
+);
@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+#
+# 为 order-service 或网关生成 AppCDS 归档
+#  1. 打包模块，生成依赖的classpath（AppCDS 只支持jar，不支持非空目录）
+#  2. 以 faststart 模式启动一次，预热后退出，记录加载过的类
+#  3. 根据类列表生成共享归档
+#
+# 启动服务需要环境变量 SECURITY_IDENTITY_SIGNING_KEY（身份信封的签名秘钥）和
+# SECURITY_REVOCATION_CLIENT_SECRET（拉取令牌吊销列表的客户端秘钥）
+#
+# 需要 JDK 11 及以上，JDK 8 只能共享JDK自己的类；生成和使用归档时的JDK、classpath必须一致
+#
+#  scripts/appcds.sh order|gateway
+#
+# 生成的文件在模块的 target 目录：classpath.txt、classes.lst、app-cds.jsa，
+# 以及使用该归档启动的 faststart.sh，额外的参数原样传给应用
+#
+# @author wangchen
+# @date 2026/10/21 00:20
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+MODULE="${1:-order}"
+case "$MODULE" in
+    order)   MAIN=cn.wangchen.security.distributed.order.OrderServer ;;
+    gateway) MAIN=cn.wangchen.security.gateway.GatewayServer ;;
+    *) echo "用法: $0 order|gateway" >&2; exit 2 ;;
+esac
+TARGET="$ROOT/distributed-security-$MODULE/target"
+: "${SECURITY_IDENTITY_SIGNING_KEY:?需要设置环境变量 SECURITY_IDENTITY_SIGNING_KEY}"
+: "${SECURITY_REVOCATION_CLIENT_SECRET:?需要设置环境变量 SECURITY_REVOCATION_CLIENT_SECRET}"
+
+cd "$ROOT"
+mvn -q -pl "distributed-security-$MODULE" -am package -DskipTests
+mvn -q -pl "distributed-security-$MODULE" dependency:build-classpath -Dmdep.outputFile="$TARGET/classpath.txt"
+CP="$TARGET/distributed-security-$MODULE-1.0-SNAPSHOT.jar:$(cat "$TARGET/classpath.txt")"
+
+# 训练运行：不注册到eureka，预热完成后退出
+java -Xshare:off -XX:DumpLoadedClassList="$TARGET/classes.lst" -cp "$CP" "$MAIN" \
+    --spring.profiles.active=faststart \
+    --faststart.exit-after-warmup=true \
+    --eureka.client.enabled=false \
+    --server.port=0
+
+java -Xshare:dump -XX:SharedClassListFile="$TARGET/classes.lst" -XX:SharedArchiveFile="$TARGET/app-cds.jsa" -cp "$CP"
+
+cat > "$TARGET/faststart.sh" <<RUN
+#!/usr/bin/env bash
+exec java -Xshare:auto -XX:SharedArchiveFile="$TARGET/app-cds.jsa" -cp "$CP" $MAIN --spring.profiles.active=faststart "\$@"
+RUN
+chmod +x "$TARGET/faststart.sh"
+echo "已生成 $TARGET/app-cds.jsa，使用 $TARGET/faststart.sh 启动"
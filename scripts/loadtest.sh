@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+#
+# 全链路压测：以本地进程启动注册中心、uaa、order-service、网关，uaa 使用 H2 内存库，
+# 对密码模式、授权码模式、刷新令牌、/order/r1 做封闭模型和开放模型的压测，输出 HDR 直方图
+#
+#  scripts/loadtest.sh [-Dloadtest.xxx=...]
+#
+# 参数见 LoadTestRunner，例如：
+#  scripts/loadtest.sh -Dloadtest.models=open -Dloadtest.rate=500 -Dloadtest.scenarios=order-r1
+#
+# 报告在 distributed-security-loadtest/target/loadtest/<时间>/ 下
+#
+# @author wangchen
+# @date 2026/10/21 11:40
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+
+cd "$ROOT"
+mvn -q package -DskipTests
+for MODULE in discovery uaa order gateway loadtest; do
+    mvn -q -pl "distributed-security-$MODULE" dependency:build-classpath \
+        -Dmdep.outputFile="$ROOT/distributed-security-$MODULE/target/classpath.txt"
+done
+TARGET="$ROOT/distributed-security-loadtest/target"
+CP="$TARGET/distributed-security-loadtest-1.0-SNAPSHOT.jar:$(cat "$TARGET/classpath.txt")"
+
+exec java -Dloadtest.root="$ROOT" "$@" -cp "$CP" cn.wangchen.security.loadtest.LoadTestRunner
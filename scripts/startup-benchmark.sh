@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+#
+# 测量 order-service 或网关从启动到可以接收流量的时间（time-to-first-authorized-request）
+#  分别以默认方式、faststart、faststart + AppCDS 各启动若干次，每次由 StartupProbe 轮询，
+#  直到带令牌的请求返回200，并且实例在注册中心里的状态为 UP
+#  faststart 模式下 tomcat 在预热完成前就能响应请求，预热结束后才注册为 UP，只看200不能和默认方式比较
+#
+#  scripts/startup-benchmark.sh order|gateway [次数]
+#
+# 需要先启动注册中心；网关的请求会转发到 order-service，测网关时还需要先启动 order-service
+# 启动服务需要环境变量 SECURITY_IDENTITY_SIGNING_KEY（身份信封的签名秘钥）和
+# SECURITY_REVOCATION_CLIENT_SECRET（拉取令牌吊销列表的客户端秘钥）
+# 第一次运行会调用 appcds.sh 生成归档，并打包 benchmarks 模块
+#
+# @author wangchen
+# @date 2026/10/21 00:30
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+MODULE="${1:-order}"
+RUNS="${2:-5}"
+: "${SECURITY_IDENTITY_SIGNING_KEY:?需要设置环境变量 SECURITY_IDENTITY_SIGNING_KEY}"
+: "${SECURITY_REVOCATION_CLIENT_SECRET:?需要设置环境变量 SECURITY_REVOCATION_CLIENT_SECRET}"
+case "$MODULE" in
+    order)   MAIN=cn.wangchen.security.distributed.order.OrderServer; APP=order-service; PORT=53021 ;;
+    gateway) MAIN=cn.wangchen.security.gateway.GatewayServer; APP=gateway-server; PORT=53010 ;;
+    *) echo "用法: $0 order|gateway [次数]" >&2; exit 2 ;;
+esac
+URL="http://localhost:$PORT/order/r1"
+EUREKA="${EUREKA:-http://localhost:53000/eureka}"
+curl -sf -o /dev/null "$EUREKA/apps" || { echo "注册中心 $EUREKA 不可用，请先启动 discovery" >&2; exit 2; }
+TARGET="$ROOT/distributed-security-$MODULE/target"
+BENCHMARKS="$ROOT/distributed-security-benchmarks/target/benchmarks.jar"
+
+[ -f "$TARGET/app-cds.jsa" ] || "$ROOT/scripts/appcds.sh" "$MODULE"
+[ -f "$BENCHMARKS" ] || (cd "$ROOT" && mvn -q -pl distributed-security-benchmarks -am package -DskipTests)
+CP="$TARGET/distributed-security-$MODULE-1.0-SNAPSHOT.jar:$(cat "$TARGET/classpath.txt")"
+
+measure() {
+    local mode="$1"
+    shift
+    local total=0
+    local count=0
+    for i in $(seq 1 "$RUNS"); do
+        local start
+        start=$(($(date +%s%N) / 1000000))
+        "$@" > "$TARGET/startup-$mode-$i.log" 2>&1 &
+        local pid=$!
+        local result
+        result=$(java -Dstart="$start" -Durl="$URL" -Deureka="$EUREKA" -Dapp="$APP" -Dport="$PORT" -cp "$BENCHMARKS" cn.wangchen.security.benchmarks.StartupProbe || true)
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        local ms="${result#ttfar_ms=}"
+        echo "$mode #$i: $ms ms"
+        [ "$ms" = "timeout" ] && continue
+        total=$((total + ms))
+        count=$((count + 1))
+    done
+    [ "$count" -gt 0 ] && echo "$mode 平均: $((total / count)) ms（$count/$RUNS 次成功）"
+}
+
+measure default java -cp "$CP" "$MAIN"
+measure faststart java -cp "$CP" "$MAIN" --spring.profiles.active=faststart
+measure faststart-cds "$TARGET/faststart.sh"